@@ -0,0 +1,37 @@
+package com.bofa.payments.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs JMH with JSON results by default, one timestamped file per run under {@code target/jmh-results},
+ * so runs can be diffed against each other. Explicit {@code -rf} or {@code -rff} options take precedence.
+ */
+public final class BenchmarkMain {
+
+    private static final DateTimeFormatter RUN_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            Path results = Path.of("target", "jmh-results", "jmh-" + RUN_STAMP.format(LocalDateTime.now()) + ".json");
+            Files.createDirectories(results.getParent());
+            arguments.add("-rff");
+            arguments.add(results.toString());
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
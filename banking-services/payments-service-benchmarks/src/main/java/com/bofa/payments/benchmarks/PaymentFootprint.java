@@ -0,0 +1,68 @@
+package com.bofa.payments.benchmarks;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.PaymentRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Retained heap per payment held by {@link PaymentRepository}: the heap growth after loading the given
+ * number of payments, half of them executed. Every payment gets its own id, account string, amounts and
+ * dates, as request deserialization produces them. The event ring is kept to one slot so it does not
+ * count towards the result. Run with a fixed heap, for example
+ * {@code java -Xms8g -Xmx8g -cp target/benchmarks.jar com.bofa.payments.benchmarks.PaymentFootprint 1000000}.
+ */
+public final class PaymentFootprint {
+
+    private static final int LOAD_CHUNK = 50_000;
+    private static final int PAYMENTS_PER_ACCOUNT = 100;
+
+    private PaymentFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int accounts = Math.max(1, count / PAYMENTS_PER_ACCOUNT);
+        long epochDay = LocalDate.now().plusDays(1).toEpochDay();
+
+        long before = usedHeap();
+        PaymentRepository repository = new PaymentRepository(Optional.empty(), 1);
+        List<Payment> drafts = new ArrayList<>(LOAD_CHUNK);
+        for (int i = 0; i < count; i++) {
+            drafts.add(new Payment(null, "ACC-" + (i % accounts), BigDecimal.valueOf(100_000 + i % 900_000, 2),
+                    new BigDecimal("0.0525"), LocalDate.ofEpochDay(epochDay + i % 365), null, PaymentStatus.SCHEDULED));
+            if (drafts.size() == LOAD_CHUNK || i == count - 1) {
+                for (Payment payment : repository.createScheduledBatch(drafts)) {
+                    if (payment.getPrincipal().unscaledValue().testBit(0)) {
+                        payment.setStatus(PaymentStatus.EXECUTED);
+                        payment.setExecutedDate(LocalDate.ofEpochDay(payment.getScheduledDate().toEpochDay()));
+                        payment.setInterest(payment.getInterest().add(BigDecimal.valueOf(1_234, 2)));
+                        repository.update(payment);
+                    }
+                }
+                drafts = new ArrayList<>(LOAD_CHUNK);
+            }
+        }
+        drafts = null;
+        long retained = usedHeap() - before;
+        Reference.reachabilityFence(repository);
+
+        System.out.printf("payments=%d accounts=%d retainedBytes=%d bytesPerPayment=%.1f%n",
+                count, accounts, retained, (double) retained / count);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,76 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PaymentRepository#findByAccount} as the store grows, with every account holding the same
+ * history length so only the total size changes. The 10M case holds about 3.5 GB of live payments, so
+ * the fork runs with a 6 GB heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class PaymentRepositoryBenchmark {
+
+    private static final int PAYMENTS_PER_ACCOUNT = 100;
+    private static final int LOAD_CHUNK = 50_000;
+
+    @Param({"10000", "1000000", "10000000"})
+    int paymentCount;
+
+    private final PaymentRepository repository = new PaymentRepository();
+    private String[] accountIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        accountIds = new String[paymentCount / PAYMENTS_PER_ACCOUNT];
+        for (int i = 0; i < accountIds.length; i++) {
+            accountIds[i] = "ACC-" + i;
+        }
+
+        BigDecimal principal = new BigDecimal("1250.00");
+        BigDecimal interest = new BigDecimal("5.25");
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<Payment> drafts = new ArrayList<>(LOAD_CHUNK);
+        for (int i = 0; i < paymentCount; i++) {
+            drafts.add(new Payment(null, accountIds[i % accountIds.length], principal, interest,
+                    start.plusDays(i / accountIds.length), null, PaymentStatus.SCHEDULED));
+            if (drafts.size() == LOAD_CHUNK) {
+                repository.createScheduledBatch(drafts);
+                drafts = new ArrayList<>(LOAD_CHUNK);
+            }
+        }
+        repository.createScheduledBatch(drafts);
+    }
+
+    @Benchmark
+    public List<Payment> findByAccount(Cursor cursor) {
+        return repository.findByAccount(accountIds[cursor.next++ % accountIds.length]);
+    }
+}
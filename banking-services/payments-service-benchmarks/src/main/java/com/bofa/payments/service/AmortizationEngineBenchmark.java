@@ -0,0 +1,73 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primitive amortization engine against the BigDecimal walk it replaces. Lives in the service package to
+ * reach the package-private reference paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationEngineBenchmark {
+
+    @Param({"60", "180", "360", "480"})
+    int termMonths;
+
+    @Param({"0", "250"})
+    String prepayment;
+
+    private final MortgageCalculator calculator = new MortgageCalculator();
+    private MortgageCalculator.Terms terms;
+
+    @Setup
+    public void setUp() {
+        MortgageEstimateRequest request = new MortgageEstimateRequest();
+        request.setLoanAmount(new BigDecimal("425000"));
+        request.setPropertyValue(new BigDecimal("500000"));
+        request.setDownPayment(new BigDecimal("75000"));
+        request.setAnnualRate(new BigDecimal("6.875"));
+        request.setTermMonths(termMonths);
+        request.setOptionalMonthlyPrepayment(new BigDecimal(prepayment));
+        terms = calculator.prepare(request);
+    }
+
+    @Benchmark
+    public Object primitiveSchedule() {
+        return PrimitiveAmortization.schedule(terms);
+    }
+
+    @Benchmark
+    public MortgageEstimateResponse bigDecimalSchedule() {
+        return calculator.estimateWithBigDecimal(terms);
+    }
+
+    @Benchmark
+    public MortgageSummaryResponse primitiveSummary() {
+        return PrimitiveAmortization.summary(terms);
+    }
+
+    @Benchmark
+    public MortgageSummaryResponse bigDecimalSummary() {
+        return calculator.summarizeWithBigDecimal(terms);
+    }
+}
@@ -0,0 +1,129 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.PaymentExecutionRequest;
+import com.bofa.payments.exception.PaymentConflictException;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.PaymentRepository;
+import com.bofa.payments.repository.TimeOrderedPaymentIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PaymentService#executePayment} from several threads at once. Executing consumes a payment, so
+ * each iteration runs a fixed batch per thread against a freshly loaded repository. With
+ * {@code account} contention every thread executes distinct payments of one account; with
+ * {@code payment} every thread races for the same payments and the losers take the rejection path.
+ * {@code shards} spreads the payments over that many accounts on a repository with that many account
+ * shards, so with more than one shard the executes run on the shards' writer threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = ExecutePaymentBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = ExecutePaymentBenchmark.BATCH_SIZE)
+@Threads(4)
+@Fork(1)
+public class ExecutePaymentBenchmark {
+
+    static final int BATCH_SIZE = 20_000;
+
+    @Param({"account", "payment"})
+    String contention;
+
+    @Param({"1", "4"})
+    int shards;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final PaymentExecutionRequest request = new PaymentExecutionRequest();
+    private MortgageCalculator mortgageCalculator;
+    private MortgageScenarioCalculator scenarioCalculator;
+    private MortgageEstimateCache estimateCache;
+    private InterestCalculator interestCalculator;
+    private PaymentRepository repository;
+    private PaymentService paymentService;
+    private String[] paymentIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            next = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        mortgageCalculator = new MortgageCalculator();
+        scenarioCalculator = new MortgageScenarioCalculator(mortgageCalculator, 1);
+        estimateCache = new MortgageEstimateCache(mortgageCalculator, new ObjectMapper(), 1 << 20, 60);
+        interestCalculator = new InterestCalculator();
+        request.setExecutionDate(LocalDate.now().plusDays(6));
+    }
+
+    @Setup(Level.Iteration)
+    public void load(BenchmarkParams params) {
+        int batchSize = Math.max(params.getWarmup().getBatchSize(), params.getMeasurement().getBatchSize());
+        int count = "payment".equals(contention) ? batchSize : batchSize * params.getThreads();
+        repository = new PaymentRepository(Optional.empty(), new TimeOrderedPaymentIdGenerator(), 1 << 16, shards);
+        BigDecimal principal = new BigDecimal("1250.00");
+        BigDecimal interest = new BigDecimal("5.25");
+        LocalDate scheduledDate = LocalDate.now().plusDays(1);
+        List<Payment> drafts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drafts.add(new Payment(null, "CHK-HOT-" + i % shards, principal, interest, scheduledDate, null, PaymentStatus.SCHEDULED));
+        }
+        paymentIds = repository.createScheduledBatch(drafts).stream().map(Payment::getPaymentId).toArray(String[]::new);
+        paymentService = new PaymentService(repository, interestCalculator, mortgageCalculator, scenarioCalculator, estimateCache,
+                new PaymentMetrics(new SimpleMeterRegistry(), repository),
+                new IdempotencyStore(1_000, 60),
+                new RecurringPaymentService(repository, 31, 3_600_000));
+        next.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void unload() {
+        repository.stop();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scenarioCalculator.stop();
+    }
+
+    @Benchmark
+    public Object executePayment(Cursor cursor) {
+        String paymentId = "payment".equals(contention) ? paymentIds[cursor.next++] : paymentIds[next.getAndIncrement()];
+        try {
+            return paymentService.executePayment(paymentId, request);
+        } catch (PaymentValidationException | PaymentConflictException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bofa.payments.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily compound accrual across day ranges: the cached fixed-point path the service uses against the
+ * uncached BigDecimal walk it replaced. Principals rotate through a fixed set so results are not constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterestCalculatorBenchmark {
+
+    private static final int PRINCIPALS = 1024;
+    private static final BigDecimal ANNUAL_RATE = new BigDecimal("0.0525");
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+    private static final MathContext MC = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    @Param({"5", "30", "365", "3650"})
+    int days;
+
+    private final InterestCalculator calculator = new InterestCalculator();
+    private final BigDecimal[] principals = new BigDecimal[PRINCIPALS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < PRINCIPALS; i++) {
+            principals[i] = BigDecimal.valueOf(100 + random.nextInt(5_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateDailyCompound() {
+        return calculator.calculateDailyCompound(nextPrincipal(), ANNUAL_RATE, days);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReference() {
+        BigDecimal dailyRate = ANNUAL_RATE.divide(DAYS_PER_YEAR, MC);
+        BigDecimal factor = BigDecimal.ONE.add(dailyRate).pow(Math.max(1, days - 3), MC);
+        return nextPrincipal().multiply(factor.subtract(BigDecimal.ONE), MC).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private BigDecimal nextPrincipal() {
+        return principals[next++ & (PRINCIPALS - 1)];
+    }
+}
@@ -0,0 +1,56 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.dto.MortgageEstimateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link MortgageCalculator#estimate}, validation and term preparation included, for 60 to
+ * 480 month terms with and without a monthly prepayment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MortgageEstimateBenchmark {
+
+    @Param({"60", "120", "180", "240", "360", "480"})
+    int termMonths;
+
+    @Param({"0", "250"})
+    String prepayment;
+
+    private final MortgageCalculator calculator = new MortgageCalculator();
+    private MortgageEstimateRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MortgageEstimateRequest();
+        request.setLoanAmount(new BigDecimal("425000"));
+        request.setPropertyValue(new BigDecimal("500000"));
+        request.setDownPayment(new BigDecimal("75000"));
+        request.setAnnualRate(new BigDecimal("6.875"));
+        request.setTermMonths(termMonths);
+        request.setOptionalMonthlyPrepayment(new BigDecimal(prepayment));
+    }
+
+    @Benchmark
+    public MortgageEstimateResponse estimate() {
+        return calculator.estimate(request);
+    }
+}
@@ -0,0 +1,93 @@
+package com.bofa.payments.util;
+
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.PaymentResponse;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.TimeOrderedPaymentIdGenerator;
+import com.bofa.payments.service.MortgageCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding time per {@link WireFormat} for the two largest responses: a 480-row amortization schedule
+ * and a 10,000-payment history. Setup prints each payload's encoded size, so one run gives both numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int HISTORY_SIZE = 10_000;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    WireFormat format;
+
+    @Param({"schedule", "history"})
+    String payload;
+
+    private ObjectWriter writer;
+    private Object value;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = format.mapperFrom(json).writer();
+        value = "schedule".equals(payload) ? schedule() : history();
+        System.out.printf("%n%s %s: %,d bytes%n", format, payload, writer.writeValueAsBytes(value).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    private static MortgageEstimateResponse schedule() {
+        MortgageEstimateRequest request = new MortgageEstimateRequest();
+        request.setLoanAmount(new BigDecimal("425000"));
+        request.setPropertyValue(new BigDecimal("500000"));
+        request.setDownPayment(BigDecimal.ZERO);
+        request.setAnnualRate(new BigDecimal("6.875"));
+        request.setTermMonths(480);
+        request.setOptionalMonthlyPrepayment(BigDecimal.ZERO);
+        return new MortgageCalculator().estimate(request);
+    }
+
+    private static List<PaymentResponse> history() {
+        TimeOrderedPaymentIdGenerator ids = new TimeOrderedPaymentIdGenerator();
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<PaymentResponse> history = new ArrayList<>(HISTORY_SIZE);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            Payment payment = new Payment(ids.nextId(), "CHK-100", BigDecimal.valueOf(125_000 + i * 37L, 2),
+                    BigDecimal.valueOf(1_250 + i % 100, 2), start.plusDays(i % 365), null, PaymentStatus.SCHEDULED);
+            history.add(PaymentMapper.toResponse(payment));
+        }
+        return history;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bofa.payments.controller;
+
+import com.bofa.payments.exception.EventTailLimitException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs event tails on up to {@code payments.events.max-tails} threads of their own. A tail can stay open
+ * for minutes, so it must not hold one of Spring MVC's shared async threads, which history and due-date
+ * streams need too. A tail beyond the limit is refused with 503 before anything is written.
+ */
+@Component
+public class EventTailExecutor {
+
+    private final int maxTails;
+    private final ThreadPoolExecutor tails;
+
+    public EventTailExecutor(@Value("${payments.events.max-tails:16}") int maxTails) {
+        if (maxTails < 1) {
+            throw new IllegalArgumentException("Max event tails must be at least 1");
+        }
+        this.maxTails = maxTails;
+        AtomicInteger threads = new AtomicInteger();
+        this.tails = new ThreadPoolExecutor(maxTails, maxTails, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "payment-event-tail-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tails.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        tails.shutdownNow();
+    }
+
+    // Starts the tail and completes the emitter when it returns, or with its error when it throws.
+    public ResponseBodyEmitter start(Consumer<ResponseBodyEmitter> tail) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            tails.execute(() -> {
+                try {
+                    tail.accept(emitter);
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new EventTailLimitException(maxTails);
+        }
+        return emitter;
+    }
+}
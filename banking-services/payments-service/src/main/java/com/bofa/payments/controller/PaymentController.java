@@ -1,53 +1,250 @@
 package com.bofa.payments.controller;
 
+import com.bofa.payments.dto.AccountSummaryResponse;
+import com.bofa.payments.dto.AmortizationSchedulePage;
+import com.bofa.payments.dto.BatchInterestResponse;
+import com.bofa.payments.dto.BatchScheduleResponse;
+import com.bofa.payments.dto.CacheStatsResponse;
 import com.bofa.payments.dto.InterestCalculationRequest;
 import com.bofa.payments.dto.InterestCalculationResponse;
 import com.bofa.payments.dto.MortgageEstimateRequest;
-import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.MortgageScenarioRequest;
+import com.bofa.payments.dto.MortgageScenarioResponse;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+import com.bofa.payments.dto.PaymentEvent;
 import com.bofa.payments.dto.PaymentExecutionRequest;
+import com.bofa.payments.dto.PaymentHistoryPage;
 import com.bofa.payments.dto.PaymentResponse;
 import com.bofa.payments.dto.PaymentScheduleRequest;
+import com.bofa.payments.dto.RecurringScheduleRequest;
+import com.bofa.payments.dto.RecurringScheduleResponse;
+import com.bofa.payments.model.PaymentStatus;
 import com.bofa.payments.service.PaymentService;
+import com.bofa.payments.service.RecurringPaymentService;
+import com.bofa.payments.util.WireFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping
 public class PaymentController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final PaymentService paymentService;
+    private final RecurringPaymentService recurringPaymentService;
+    private final EventTailExecutor eventTails;
+    private final ObjectReader scheduleRequestReader;
+    private final ObjectReader interestRequestReader;
+    private final ObjectWriter responseWriter;
+    private final ObjectWriter eventWriter;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             RecurringPaymentService recurringPaymentService,
+                             EventTailExecutor eventTails,
+                             ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.recurringPaymentService = recurringPaymentService;
+        this.eventTails = eventTails;
+        this.scheduleRequestReader = objectMapper.readerFor(PaymentScheduleRequest.class);
+        this.interestRequestReader = objectMapper.readerFor(InterestCalculationRequest.class);
+        this.responseWriter = objectMapper.writerFor(PaymentResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.eventWriter = objectMapper.writerFor(PaymentEvent.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping("/payments/schedule")
     @ResponseStatus(HttpStatus.CREATED)
-    public PaymentResponse schedulePayment(@Valid @RequestBody PaymentScheduleRequest request) {
-        return paymentService.schedulePayment(request);
+    public PaymentResponse schedulePayment(@Valid @RequestBody PaymentScheduleRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return paymentService.schedulePayment(request, idempotencyKey);
+    }
+
+    @PostMapping(value = "/payments/schedule/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.SMILE_VALUE})
+    public BatchScheduleResponse scheduleBatch(@RequestBody List<PaymentScheduleRequest> requests) {
+        return paymentService.scheduleBatch(requests);
+    }
+
+    @PostMapping(value = "/payments/schedule/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchScheduleResponse scheduleBatchNdjson(InputStream body) throws IOException {
+        try (MappingIterator<PaymentScheduleRequest> requests = scheduleRequestReader.readValues(body)) {
+            return paymentService.scheduleBatch(readAtMost(requests, PaymentService.MAX_BATCH_SIZE));
+        }
     }
 
     @PostMapping("/payments/execute/{paymentId}")
     public PaymentResponse executePayment(@PathVariable String paymentId,
-                                           @Valid @RequestBody PaymentExecutionRequest request) {
-        return paymentService.executePayment(paymentId, request);
+                                           @Valid @RequestBody PaymentExecutionRequest request,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return paymentService.executePayment(paymentId, request, idempotencyKey);
     }
 
+    // The ETag is taken before the history is read, so a 304 costs one counter lookup. It names the wire
+    // format too, since each encoding is a different representation.
     @GetMapping("/payments/history/{accountId}")
-    public List<PaymentResponse> getPaymentHistory(@PathVariable String accountId) {
+    public List<PaymentResponse> getPaymentHistory(@PathVariable String accountId,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                   ServletWebRequest webRequest) {
+        String etag = "\"" + paymentService.getPaymentHistoryVersion(accountId) + "-"
+                + WireFormat.negotiate(accept).name().toLowerCase() + "\"";
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return paymentService.getPaymentHistory(accountId);
     }
 
+    @GetMapping("/payments/summary/{accountId}")
+    public AccountSummaryResponse getAccountSummary(@PathVariable String accountId) {
+        return paymentService.getAccountSummary(accountId);
+    }
+
+    @PostMapping("/payments/recurring")
+    @ResponseStatus(HttpStatus.CREATED)
+    public RecurringScheduleResponse createRecurringSchedule(@Valid @RequestBody RecurringScheduleRequest request) {
+        return recurringPaymentService.createSchedule(request);
+    }
+
+    @GetMapping("/payments/recurring/{scheduleId}")
+    public RecurringScheduleResponse getRecurringSchedule(@PathVariable String scheduleId) {
+        return recurringPaymentService.getSchedule(scheduleId);
+    }
+
+    @GetMapping("/payments/history/{accountId}/page")
+    public PaymentHistoryPage getPaymentHistoryPage(@PathVariable String accountId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        return paymentService.getPaymentHistoryPage(accountId, cursor, limit);
+    }
+
+    @GetMapping(value = "/payments/history/{accountId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamPaymentHistory(@PathVariable String accountId) {
+        return output -> writeNdjson(output, paymentService.streamPaymentHistory(accountId));
+    }
+
+    @GetMapping(value = "/payments/due", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamDuePayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) PaymentStatus status) {
+        Stream<PaymentResponse> payments = paymentService.streamDuePayments(from == null ? LocalDate.now() : from, to, status);
+        return output -> writeNdjson(output, payments);
+    }
+
+    @GetMapping(value = "/payments/events/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter streamPaymentEvents(@RequestParam(defaultValue = "0") long fromSequence,
+                                                   @RequestParam(defaultValue = "10000") long waitMillis) {
+        return eventTails.start(emitter -> paymentService.tailPaymentEvents(fromSequence, waitMillis, events -> {
+            try {
+                ByteArrayOutputStream lines = new ByteArrayOutputStream();
+                for (PaymentEvent event : events) {
+                    eventWriter.writeValue(lines, event);
+                    lines.write('\n');
+                }
+                emitter.send(lines.toByteArray(), MediaType.APPLICATION_NDJSON);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private void writeNdjson(OutputStream output, Stream<PaymentResponse> payments) throws IOException {
+        try (payments) {
+            Iterator<PaymentResponse> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                responseWriter.writeValue(output, iterator.next());
+                output.write('\n');
+            }
+        }
+    }
+
     @PostMapping("/interest/calculate")
     public InterestCalculationResponse calculateInterest(@Valid @RequestBody InterestCalculationRequest request) {
         return paymentService.calculateInterest(request);
     }
 
-    @PostMapping("/mortgage/estimate")
-    public MortgageEstimateResponse estimateMortgage(@Valid @RequestBody MortgageEstimateRequest request) {
-        return paymentService.estimateMortgage(request);
+    @PostMapping(value = "/interest/calculate/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.SMILE_VALUE})
+    public BatchInterestResponse calculateInterestBatch(@RequestBody List<InterestCalculationRequest> requests) {
+        return paymentService.calculateInterestBatch(requests);
+    }
+
+    @PostMapping(value = "/interest/calculate/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchInterestResponse calculateInterestBatchNdjson(InputStream body) throws IOException {
+        try (MappingIterator<InterestCalculationRequest> requests = interestRequestReader.readValues(body)) {
+            return paymentService.calculateInterestBatch(readAtMost(requests, PaymentService.MAX_INTEREST_BATCH_SIZE));
+        }
+    }
+
+    @GetMapping("/interest/factor-cache/stats")
+    public CacheStatsResponse getInterestFactorCacheStats() {
+        return paymentService.getInterestFactorCacheStats();
+    }
+
+    @PostMapping(value = "/mortgage/estimate",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, WireFormat.SMILE_VALUE})
+    public ResponseEntity<byte[]> estimateMortgage(@Valid @RequestBody MortgageEstimateRequest request,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        WireFormat format = WireFormat.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(paymentService.estimateMortgageEncoded(request, format));
+    }
+
+    @GetMapping("/mortgage/estimate/cache/stats")
+    public CacheStatsResponse getMortgageEstimateCacheStats() {
+        return paymentService.getMortgageEstimateCacheStats();
+    }
+
+    @PostMapping("/mortgage/estimate/summary")
+    public MortgageSummaryResponse summarizeMortgage(@Valid @RequestBody MortgageEstimateRequest request) {
+        return paymentService.summarizeMortgage(request);
+    }
+
+    @PostMapping("/mortgage/estimate/schedule")
+    public AmortizationSchedulePage getMortgageSchedulePage(@Valid @RequestBody MortgageEstimateRequest request,
+                                                            @RequestParam(defaultValue = "1") int fromMonth,
+                                                            @RequestParam(defaultValue = "60") int limit) {
+        return paymentService.getMortgageSchedulePage(request, fromMonth, limit);
+    }
+
+    @PostMapping("/mortgage/scenarios")
+    public MortgageScenarioResponse calculateMortgageScenarios(@Valid @RequestBody MortgageScenarioRequest request) {
+        return paymentService.calculateMortgageScenarios(request);
+    }
+
+    // Stops one value past the cap, so an oversized body is rejected without being buffered.
+    private static <T> List<T> readAtMost(MappingIterator<T> values, int max) throws IOException {
+        List<T> read = new ArrayList<>();
+        while (read.size() <= max && values.hasNextValue()) {
+            read.add(values.nextValue());
+        }
+        return read;
     }
 }
@@ -0,0 +1,25 @@
+package com.bofa.payments.controller;
+
+import com.bofa.payments.util.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// CBOR and Smile message converters built from the application's JSON ObjectMapper, so all formats
+// share its modules and settings. They take the places of Spring's default binary converters, after
+// JSON, so JSON still answers requests without an Accept header or with Accept: */*.
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapperFrom(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapperFrom(objectMapper));
+    }
+}
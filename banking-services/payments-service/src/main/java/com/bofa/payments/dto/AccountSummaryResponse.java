@@ -0,0 +1,55 @@
+package com.bofa.payments.dto;
+
+import com.bofa.payments.model.AccountSummary;
+import com.bofa.payments.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public class AccountSummaryResponse {
+    private String accountId;
+    private long paymentCount;
+    private BigDecimal scheduledPrincipal;
+    private BigDecimal scheduledInterest;
+    private LocalDate nextDueDate;
+    private Map<PaymentStatus, AccountSummary.StatusTotals> byStatus;
+
+    public AccountSummaryResponse(String accountId,
+                                  long paymentCount,
+                                  BigDecimal scheduledPrincipal,
+                                  BigDecimal scheduledInterest,
+                                  LocalDate nextDueDate,
+                                  Map<PaymentStatus, AccountSummary.StatusTotals> byStatus) {
+        this.accountId = accountId;
+        this.paymentCount = paymentCount;
+        this.scheduledPrincipal = scheduledPrincipal;
+        this.scheduledInterest = scheduledInterest;
+        this.nextDueDate = nextDueDate;
+        this.byStatus = byStatus;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public BigDecimal getScheduledPrincipal() {
+        return scheduledPrincipal;
+    }
+
+    public BigDecimal getScheduledInterest() {
+        return scheduledInterest;
+    }
+
+    public LocalDate getNextDueDate() {
+        return nextDueDate;
+    }
+
+    public Map<PaymentStatus, AccountSummary.StatusTotals> getByStatus() {
+        return byStatus;
+    }
+}
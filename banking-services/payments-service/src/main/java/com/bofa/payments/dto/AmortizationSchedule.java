@@ -0,0 +1,76 @@
+package com.bofa.payments.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Amortization schedule stored as parallel arrays of cents, one slot per month starting at month 1.
+ * Rows are only turned into {@link AmortizationInstallment}s when read through the {@code List} view;
+ * {@link AmortizationScheduleSerializer} writes the same JSON straight from the arrays.
+ */
+@JsonSerialize(using = AmortizationScheduleSerializer.class)
+public class AmortizationSchedule extends AbstractList<AmortizationInstallment> implements RandomAccess {
+    private long[] principalCents;
+    private long[] interestCents;
+    private long[] balanceCents;
+    private final BitSet penaltyApplied = new BitSet();
+    private int size;
+
+    public AmortizationSchedule(int capacity) {
+        this.principalCents = new long[capacity];
+        this.interestCents = new long[capacity];
+        this.balanceCents = new long[capacity];
+    }
+
+    public void append(long principal, long interest, long balance, boolean penalty) {
+        if (size == principalCents.length) {
+            int capacity = Math.max(16, size * 2);
+            principalCents = Arrays.copyOf(principalCents, capacity);
+            interestCents = Arrays.copyOf(interestCents, capacity);
+            balanceCents = Arrays.copyOf(balanceCents, capacity);
+        }
+        principalCents[size] = principal;
+        interestCents[size] = interest;
+        balanceCents[size] = balance;
+        penaltyApplied.set(size, penalty);
+        size++;
+    }
+
+    public long principalCents(int index) {
+        return principalCents[index];
+    }
+
+    public long interestCents(int index) {
+        return interestCents[index];
+    }
+
+    public long balanceCents(int index) {
+        return balanceCents[index];
+    }
+
+    public boolean penaltyApplied(int index) {
+        return penaltyApplied.get(index);
+    }
+
+    @Override
+    public AmortizationInstallment get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new AmortizationInstallment(index + 1,
+                BigDecimal.valueOf(principalCents[index], 2),
+                BigDecimal.valueOf(interestCents[index], 2),
+                BigDecimal.valueOf(balanceCents[index], 2),
+                penaltyApplied.get(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
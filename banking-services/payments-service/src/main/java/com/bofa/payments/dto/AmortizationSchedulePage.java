@@ -0,0 +1,21 @@
+package com.bofa.payments.dto;
+
+import java.util.List;
+
+public class AmortizationSchedulePage {
+    private List<AmortizationInstallment> installments;
+    private Integer nextMonth;
+
+    public AmortizationSchedulePage(List<AmortizationInstallment> installments, Integer nextMonth) {
+        this.installments = installments;
+        this.nextMonth = nextMonth;
+    }
+
+    public List<AmortizationInstallment> getInstallments() {
+        return installments;
+    }
+
+    public Integer getNextMonth() {
+        return nextMonth;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bofa.payments.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes an {@link AmortizationSchedule} in the JSON shape of a {@code List<AmortizationInstallment>}
+ * without creating installments or {@code BigDecimal}s. Amounts are formatted from cents as plain
+ * two-decimal numbers, exactly as {@code BigDecimal.toString()} renders a scale-2 value. Binary formats,
+ * which cannot take a formatted number, get the scale-2 {@code BigDecimal} instead.
+ */
+public class AmortizationScheduleSerializer extends StdSerializer<AmortizationSchedule> {
+
+    public AmortizationScheduleSerializer() {
+        super(AmortizationSchedule.class);
+    }
+
+    @Override
+    public void serialize(AmortizationSchedule schedule, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[21];
+        gen.writeStartArray(schedule, schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            gen.writeStartObject();
+            gen.writeNumberField("month", i + 1);
+            writeCents(gen, "principalComponent", schedule.principalCents(i), buffer);
+            writeCents(gen, "interestComponent", schedule.interestCents(i), buffer);
+            writeCents(gen, "remainingBalance", schedule.balanceCents(i), buffer);
+            gen.writeBooleanField("prepaymentPenaltyApplied", schedule.penaltyApplied(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeCents(JsonGenerator gen, String field, long cents, char[] buffer) throws IOException {
+        gen.writeFieldName(field);
+        if (!gen.canWriteFormattedNumbers()) {
+            gen.writeNumber(BigDecimal.valueOf(cents, 2));
+            return;
+        }
+        // Fill from the right: two fraction digits, the point, then at least one integer digit.
+        long magnitude = Math.abs(cents);
+        int pos = buffer.length;
+        buffer[--pos] = (char) ('0' + magnitude % 10);
+        magnitude /= 10;
+        buffer[--pos] = (char) ('0' + magnitude % 10);
+        magnitude /= 10;
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        } while (magnitude > 0);
+        if (cents < 0) {
+            buffer[--pos] = '-';
+        }
+        gen.writeNumber(buffer, pos, buffer.length - pos);
+    }
+}
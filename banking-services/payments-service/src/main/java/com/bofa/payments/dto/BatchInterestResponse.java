@@ -0,0 +1,29 @@
+package com.bofa.payments.dto;
+
+import java.util.List;
+
+public class BatchInterestResponse {
+    private int calculatedCount;
+    private int rejectedCount;
+    private List<BatchItemResult<InterestCalculationResponse>> results;
+
+    public BatchInterestResponse(int calculatedCount,
+                                 int rejectedCount,
+                                 List<BatchItemResult<InterestCalculationResponse>> results) {
+        this.calculatedCount = calculatedCount;
+        this.rejectedCount = rejectedCount;
+        this.results = results;
+    }
+
+    public int getCalculatedCount() {
+        return calculatedCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public List<BatchItemResult<InterestCalculationResponse>> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bofa.payments.dto;
+
+public class BatchItemResult<T> {
+    private int index;
+    private T result;
+    private String error;
+
+    public BatchItemResult(int index, T result, String error) {
+        this.index = index;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static <T> BatchItemResult<T> success(int index, T result) {
+        return new BatchItemResult<>(index, result, null);
+    }
+
+    public static <T> BatchItemResult<T> failure(int index, String error) {
+        return new BatchItemResult<>(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public T getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bofa.payments.dto;
+
+import java.util.List;
+
+public class BatchScheduleResponse {
+    private int scheduledCount;
+    private int rejectedCount;
+    private List<BatchItemResult<PaymentResponse>> results;
+
+    public BatchScheduleResponse(int scheduledCount,
+                                 int rejectedCount,
+                                 List<BatchItemResult<PaymentResponse>> results) {
+        this.scheduledCount = scheduledCount;
+        this.rejectedCount = rejectedCount;
+        this.results = results;
+    }
+
+    public int getScheduledCount() {
+        return scheduledCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public List<BatchItemResult<PaymentResponse>> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bofa.payments.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class MortgageScenarioRequest {
+
+    @NotNull
+    @DecimalMin("1.00")
+    private BigDecimal loanAmount;
+
+    @NotNull
+    @DecimalMin("1.00")
+    private BigDecimal propertyValue;
+
+    @NotNull
+    @DecimalMin("0.00")
+    private BigDecimal downPayment;
+
+    @NotEmpty
+    private List<BigDecimal> annualRates;
+
+    @NotEmpty
+    private List<Integer> termMonths;
+
+    private List<BigDecimal> optionalMonthlyPrepayments = List.of(BigDecimal.ZERO);
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public BigDecimal getPropertyValue() {
+        return propertyValue;
+    }
+
+    public void setPropertyValue(BigDecimal propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public BigDecimal getDownPayment() {
+        return downPayment;
+    }
+
+    public void setDownPayment(BigDecimal downPayment) {
+        this.downPayment = downPayment;
+    }
+
+    public List<BigDecimal> getAnnualRates() {
+        return annualRates;
+    }
+
+    public void setAnnualRates(List<BigDecimal> annualRates) {
+        this.annualRates = annualRates;
+    }
+
+    public List<Integer> getTermMonths() {
+        return termMonths;
+    }
+
+    public void setTermMonths(List<Integer> termMonths) {
+        this.termMonths = termMonths;
+    }
+
+    public List<BigDecimal> getOptionalMonthlyPrepayments() {
+        return optionalMonthlyPrepayments;
+    }
+
+    public void setOptionalMonthlyPrepayments(List<BigDecimal> optionalMonthlyPrepayments) {
+        this.optionalMonthlyPrepayments = optionalMonthlyPrepayments;
+    }
+}
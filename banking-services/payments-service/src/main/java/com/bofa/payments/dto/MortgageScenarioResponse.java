@@ -0,0 +1,21 @@
+package com.bofa.payments.dto;
+
+import java.util.List;
+
+public class MortgageScenarioResponse {
+    private int scenarioCount;
+    private List<MortgageScenarioRow> scenarios;
+
+    public MortgageScenarioResponse(List<MortgageScenarioRow> scenarios) {
+        this.scenarioCount = scenarios.size();
+        this.scenarios = scenarios;
+    }
+
+    public int getScenarioCount() {
+        return scenarioCount;
+    }
+
+    public List<MortgageScenarioRow> getScenarios() {
+        return scenarios;
+    }
+}
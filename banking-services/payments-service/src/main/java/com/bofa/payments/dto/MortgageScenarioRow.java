@@ -0,0 +1,60 @@
+package com.bofa.payments.dto;
+
+import java.math.BigDecimal;
+
+public class MortgageScenarioRow {
+    private BigDecimal annualRate;
+    private int termMonths;
+    private BigDecimal optionalMonthlyPrepayment;
+    private BigDecimal monthlyPayment;
+    private boolean pmiRequired;
+    private int estimatedMonthsToPayoff;
+    private BigDecimal totalInterest;
+    private BigDecimal totalPenalty;
+
+    public MortgageScenarioRow(BigDecimal annualRate,
+                               int termMonths,
+                               BigDecimal optionalMonthlyPrepayment,
+                               MortgageSummaryResponse summary) {
+        this.annualRate = annualRate;
+        this.termMonths = termMonths;
+        this.optionalMonthlyPrepayment = optionalMonthlyPrepayment;
+        this.monthlyPayment = summary.getMonthlyPayment();
+        this.pmiRequired = summary.isPmiRequired();
+        this.estimatedMonthsToPayoff = summary.getEstimatedMonthsToPayoff();
+        this.totalInterest = summary.getTotalInterest();
+        this.totalPenalty = summary.getTotalPenalty();
+    }
+
+    public BigDecimal getAnnualRate() {
+        return annualRate;
+    }
+
+    public int getTermMonths() {
+        return termMonths;
+    }
+
+    public BigDecimal getOptionalMonthlyPrepayment() {
+        return optionalMonthlyPrepayment;
+    }
+
+    public BigDecimal getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public boolean isPmiRequired() {
+        return pmiRequired;
+    }
+
+    public int getEstimatedMonthsToPayoff() {
+        return estimatedMonthsToPayoff;
+    }
+
+    public BigDecimal getTotalInterest() {
+        return totalInterest;
+    }
+
+    public BigDecimal getTotalPenalty() {
+        return totalPenalty;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bofa.payments.dto;
+
+import java.math.BigDecimal;
+
+public class MortgageSummaryResponse {
+    private BigDecimal monthlyPayment;
+    private boolean pmiRequired;
+    private int estimatedMonthsToPayoff;
+    private BigDecimal totalInterest;
+    private BigDecimal totalPenalty;
+
+    public MortgageSummaryResponse(BigDecimal monthlyPayment,
+                                   boolean pmiRequired,
+                                   int estimatedMonthsToPayoff,
+                                   BigDecimal totalInterest,
+                                   BigDecimal totalPenalty) {
+        this.monthlyPayment = monthlyPayment;
+        this.pmiRequired = pmiRequired;
+        this.estimatedMonthsToPayoff = estimatedMonthsToPayoff;
+        this.totalInterest = totalInterest;
+        this.totalPenalty = totalPenalty;
+    }
+
+    public BigDecimal getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public boolean isPmiRequired() {
+        return pmiRequired;
+    }
+
+    public int getEstimatedMonthsToPayoff() {
+        return estimatedMonthsToPayoff;
+    }
+
+    public BigDecimal getTotalInterest() {
+        return totalInterest;
+    }
+
+    public BigDecimal getTotalPenalty() {
+        return totalPenalty;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bofa.payments.dto;
+
+import com.bofa.payments.model.PaymentStatus;
+
+public class PaymentEvent {
+    private long sequence;
+    private PaymentStatus previousStatus;
+    private long version;
+    private PaymentResponse payment;
+
+    public PaymentEvent(long sequence, PaymentStatus previousStatus, long version, PaymentResponse payment) {
+        this.sequence = sequence;
+        this.previousStatus = previousStatus;
+        this.version = version;
+        this.payment = payment;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public PaymentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PaymentResponse getPayment() {
+        return payment;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bofa.payments.dto;
+
+import java.util.List;
+
+public class PaymentHistoryPage {
+    private List<PaymentResponse> payments;
+    private String nextCursor;
+
+    public PaymentHistoryPage(List<PaymentResponse> payments, String nextCursor) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PaymentResponse> getPayments() {
+        return payments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bofa.payments.dto;
+
+import com.bofa.payments.model.RecurringSchedule;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RecurringScheduleRequest {
+
+    @NotBlank
+    private String accountId;
+
+    @NotNull
+    @DecimalMin(value = "1.00", message = "Principal must be positive")
+    private BigDecimal principal;
+
+    @NotNull
+    @DecimalMin(value = "0.00", message = "Interest cannot be negative")
+    private BigDecimal interest;
+
+    @NotNull
+    private RecurringSchedule.Frequency frequency;
+
+    @Min(1)
+    private int interval = 1;
+
+    @NotNull
+    @Future
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(BigDecimal principal) {
+        this.principal = principal;
+    }
+
+    public BigDecimal getInterest() {
+        return interest;
+    }
+
+    public void setInterest(BigDecimal interest) {
+        this.interest = interest;
+    }
+
+    public RecurringSchedule.Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurringSchedule.Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+}
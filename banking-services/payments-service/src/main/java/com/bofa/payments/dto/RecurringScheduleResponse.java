@@ -0,0 +1,74 @@
+package com.bofa.payments.dto;
+
+import com.bofa.payments.model.RecurringSchedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class RecurringScheduleResponse {
+    private String scheduleId;
+    private String accountId;
+    private BigDecimal principal;
+    private BigDecimal interest;
+    private RecurringSchedule.Frequency frequency;
+    private int interval;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long materializedOccurrences;
+
+    public RecurringScheduleResponse(String scheduleId,
+                                     String accountId,
+                                     BigDecimal principal,
+                                     BigDecimal interest,
+                                     RecurringSchedule.Frequency frequency,
+                                     int interval,
+                                     LocalDate startDate,
+                                     LocalDate endDate,
+                                     long materializedOccurrences) {
+        this.scheduleId = scheduleId;
+        this.accountId = accountId;
+        this.principal = principal;
+        this.interest = interest;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.materializedOccurrences = materializedOccurrences;
+    }
+
+    public String getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public BigDecimal getInterest() {
+        return interest;
+    }
+
+    public RecurringSchedule.Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public long getMaterializedOccurrences() {
+        return materializedOccurrences;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bofa.payments.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class EventTailLimitException extends RuntimeException {
+    public EventTailLimitException(int maxTails) {
+        super("All " + maxTails + " event tails are in use; retry later");
+    }
+}
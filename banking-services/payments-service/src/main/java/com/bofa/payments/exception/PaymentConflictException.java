@@ -0,0 +1,11 @@
+package com.bofa.payments.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PaymentConflictException extends RuntimeException {
+    public PaymentConflictException(String paymentId) {
+        super("Payment was modified concurrently for id=" + paymentId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bofa.payments.exception;
+
+public class RecurringScheduleNotFoundException extends RuntimeException {
+    public RecurringScheduleNotFoundException(String scheduleId) {
+        super("Recurring schedule not found for id=" + scheduleId);
+    }
+}
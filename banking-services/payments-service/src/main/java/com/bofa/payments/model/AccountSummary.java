@@ -0,0 +1,11 @@
+package com.bofa.payments.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public record AccountSummary(String accountId, Map<PaymentStatus, StatusTotals> byStatus, LocalDate nextDueDate) {
+
+    public record StatusTotals(long count, BigDecimal principal, BigDecimal interest) {
+    }
+}
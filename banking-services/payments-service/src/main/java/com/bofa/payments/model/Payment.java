@@ -12,6 +12,7 @@ public class Payment {
     private LocalDate scheduledDate;
     private LocalDate executedDate;
     private PaymentStatus status;
+    private long version;
 
     public Payment(String paymentId,
                    String accountId,
@@ -32,6 +33,12 @@ public class Payment {
     public Payment() {
     }
 
+    public Payment copy() {
+        Payment copy = new Payment(paymentId, accountId, principal, interest, scheduledDate, executedDate, status);
+        copy.version = version;
+        return copy;
+    }
+
     public String getPaymentId() {
         return paymentId;
     }
@@ -88,6 +95,14 @@ public class Payment {
         this.status = status;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
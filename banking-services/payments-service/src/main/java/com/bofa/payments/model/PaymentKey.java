@@ -0,0 +1,16 @@
+package com.bofa.payments.model;
+
+import java.time.LocalDate;
+
+public record PaymentKey(LocalDate scheduledDate, String paymentId) implements Comparable<PaymentKey> {
+
+    public static PaymentKey of(Payment payment) {
+        return new PaymentKey(payment.getScheduledDate(), payment.getPaymentId());
+    }
+
+    @Override
+    public int compareTo(PaymentKey other) {
+        int byDate = scheduledDate.compareTo(other.scheduledDate);
+        return byDate != 0 ? byDate : paymentId.compareTo(other.paymentId);
+    }
+}
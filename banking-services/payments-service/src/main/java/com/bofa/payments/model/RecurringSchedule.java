@@ -0,0 +1,133 @@
+package com.bofa.payments.model;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A standing order: one payment of the same amounts every {@code interval} periods from {@code startDate}
+ * through {@code endDate}. Occurrence {@code n} falls {@code n * interval} periods after the start, counted
+ * from the start each time so month-end dates clamp without drifting. Schedule ids are UUIDs with the low
+ * 16 bits clear and occurrence {@code n}'s payment id sets them to {@code n + 1}, so occurrence ids are
+ * canonical UUIDs that the repository stores as two longs, and each one leads back to its schedule.
+ * Occurrences are therefore computed, never stored, until they are materialized.
+ */
+public record RecurringSchedule(String scheduleId,
+                                String accountId,
+                                BigDecimal principal,
+                                BigDecimal interest,
+                                Frequency frequency,
+                                int interval,
+                                LocalDate startDate,
+                                LocalDate endDate) {
+
+    // Weekly for 50 years is about 2,600 occurrences, well inside the 16 bits an occurrence id has.
+    public static final long MAX_OCCURRENCES = 0xFFFF;
+    private static final long OCCURRENCE_BITS = 0xFFFF;
+
+    public RecurringSchedule {
+        UUID id = parseCanonical(scheduleId);
+        if (id == null || (id.getLeastSignificantBits() & OCCURRENCE_BITS) != 0) {
+            throw new IllegalArgumentException("Not a schedule id: " + scheduleId);
+        }
+    }
+
+    // A schedule id made from a freshly generated UUID id. Only random bits are cleared, so ids from
+    // the time-ordered generator stay unique, and random ones keep over a hundred random bits.
+    public static String scheduleId(String generatedId) {
+        UUID id = UUID.fromString(generatedId);
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() & ~OCCURRENCE_BITS).toString();
+    }
+
+    // The id of the schedule an occurrence id belongs to, or null when the id cannot be an occurrence id.
+    public static String scheduleIdOf(String paymentId) {
+        UUID id = parseCanonical(paymentId);
+        if (id == null || (id.getLeastSignificantBits() & OCCURRENCE_BITS) == 0) {
+            return null;
+        }
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() & ~OCCURRENCE_BITS).toString();
+    }
+
+    public enum Frequency {
+        WEEKLY(ChronoUnit.WEEKS, 1),
+        MONTHLY(ChronoUnit.MONTHS, 1),
+        QUARTERLY(ChronoUnit.MONTHS, 3),
+        YEARLY(ChronoUnit.YEARS, 1);
+
+        private final ChronoUnit unit;
+        private final int units;
+
+        Frequency(ChronoUnit unit, int units) {
+            this.unit = unit;
+            this.units = units;
+        }
+
+        // The estimated time between occurrences, computed without adding it to a date, which overflows.
+        public Duration span(int interval) {
+            return unit.getDuration().multipliedBy((long) interval * units);
+        }
+    }
+
+    // The date of occurrence n, or null when it falls after the end date.
+    public LocalDate occurrenceDate(long n) {
+        LocalDate date = startDate.plus(n * interval * frequency.units, frequency.unit);
+        return date.isAfter(endDate) ? null : date;
+    }
+
+    // The first occurrence on or after the date; past the end date when there is none.
+    public long firstOccurrenceFrom(LocalDate date) {
+        if (!date.isAfter(startDate)) {
+            return 0;
+        }
+        long step = (long) interval * frequency.units;
+        long n = frequency.unit.between(startDate, date) / step;
+        while (startDate.plus(n * step, frequency.unit).isBefore(date)) {
+            n++;
+        }
+        return n;
+    }
+
+    // Occurrences [0, occurrenceCount()) fall on or before the end date.
+    public long occurrenceCount() {
+        return firstOccurrenceFrom(endDate.plusDays(1));
+    }
+
+    public String occurrenceId(long n) {
+        if (n < 0 || n >= MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("Occurrence " + n + " is out of range");
+        }
+        UUID id = UUID.fromString(scheduleId);
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() | n + 1).toString();
+    }
+
+    // Occurrence n as a scheduled payment, or null when it falls after the end date.
+    public Payment occurrence(long n) {
+        LocalDate date = occurrenceDate(n);
+        return date == null ? null
+                : new Payment(occurrenceId(n), accountId, principal, interest, date, null, PaymentStatus.SCHEDULED);
+    }
+
+    // The occurrence number encoded in a payment id, or -1 when the id is not one of this schedule's.
+    public long occurrenceIndex(String paymentId) {
+        if (!scheduleId.equals(scheduleIdOf(paymentId))) {
+            return -1;
+        }
+        long n = (UUID.fromString(paymentId).getLeastSignificantBits() & OCCURRENCE_BITS) - 1;
+        return occurrenceDate(n) != null ? n : -1;
+    }
+
+    // Only the canonical form, so an id and the UUID it parses to print the same.
+    private static UUID parseCanonical(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
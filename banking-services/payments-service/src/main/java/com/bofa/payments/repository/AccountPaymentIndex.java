@@ -0,0 +1,51 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.PaymentKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+class AccountPaymentIndex implements PaymentIndex {
+
+    private final Map<String, ConcurrentNavigableMap<PaymentSortKey, StoredPayment>> byAccount = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(StoredPayment previous, StoredPayment current) {
+        if (current == null) {
+            unlink(previous.accountId(), previous.key());
+            return;
+        }
+        PaymentSortKey key = current.key();
+        if (previous != null) {
+            if (!previous.accountId().equals(current.accountId()) || previous.key().compareTo(key) != 0) {
+                unlink(previous.accountId(), previous.key());
+            }
+        }
+        byAccount.compute(current.accountId(), (accountId, bucket) -> {
+            if (bucket == null) {
+                bucket = new ConcurrentSkipListMap<>();
+            }
+            bucket.put(key, current);
+            return bucket;
+        });
+    }
+
+    Collection<StoredPayment> findAfter(String accountId, PaymentKey after) {
+        ConcurrentNavigableMap<PaymentSortKey, StoredPayment> bucket = byAccount.get(accountId);
+        if (bucket == null) {
+            return List.of();
+        }
+        return after == null ? bucket.values() : bucket.tailMap(PaymentSortKey.of(after), false).values();
+    }
+
+    private void unlink(String accountId, PaymentSortKey key) {
+        byAccount.computeIfPresent(accountId, (id, bucket) -> {
+            bucket.remove(key);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.AccountSummary;
+import com.bofa.payments.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Running totals per account and status, plus the account's scheduled dates, so a summary never reads
+// the account's history. Each account's totals change under its own monitor and a write that stays
+// within one account is applied in a single step, so readers never see a payment half moved.
+class AccountSummaryIndex implements PaymentIndex {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final Map<String, AccountTotals> byAccount = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(StoredPayment previous, StoredPayment current) {
+        if (current == null) {
+            byAccount.get(previous.accountId()).replace(previous, null);
+            return;
+        }
+        AccountTotals totals = byAccount.computeIfAbsent(current.accountId(), accountId -> new AccountTotals());
+        if (previous == null || previous.accountId().equals(current.accountId())) {
+            totals.replace(previous, current);
+        } else {
+            byAccount.get(previous.accountId()).replace(previous, null);
+            totals.replace(null, current);
+        }
+    }
+
+    AccountSummary summarize(String accountId) {
+        AccountTotals totals = byAccount.get(accountId);
+        return totals == null ? new AccountTotals().snapshot(accountId) : totals.snapshot(accountId);
+    }
+
+    private static final class AccountTotals {
+
+        private final long[] counts = new long[STATUSES.length];
+        private final BigDecimal[] principal = new BigDecimal[STATUSES.length];
+        private final BigDecimal[] interest = new BigDecimal[STATUSES.length];
+        private final NavigableMap<LocalDate, Integer> scheduledDates = new TreeMap<>();
+
+        AccountTotals() {
+            Arrays.fill(principal, BigDecimal.ZERO);
+            Arrays.fill(interest, BigDecimal.ZERO);
+        }
+
+        synchronized void replace(StoredPayment removed, StoredPayment added) {
+            if (removed != null) {
+                apply(removed, -1);
+            }
+            if (added != null) {
+                apply(added, 1);
+            }
+        }
+
+        synchronized AccountSummary snapshot(String accountId) {
+            Map<PaymentStatus, AccountSummary.StatusTotals> byStatus = new EnumMap<>(PaymentStatus.class);
+            for (PaymentStatus status : STATUSES) {
+                int i = status.ordinal();
+                byStatus.put(status, new AccountSummary.StatusTotals(counts[i], principal[i], interest[i]));
+            }
+            LocalDate nextDueDate = scheduledDates.isEmpty() ? null : scheduledDates.firstKey();
+            return new AccountSummary(accountId, byStatus, nextDueDate);
+        }
+
+        private void apply(StoredPayment payment, int sign) {
+            PaymentStatus status = payment.status();
+            if (status == null) {
+                return;
+            }
+            int i = status.ordinal();
+            counts[i] += sign;
+            principal[i] = add(principal[i], payment.principal(), sign);
+            interest[i] = add(interest[i], payment.interest(), sign);
+            LocalDate scheduledDate = payment.key().scheduledDate();
+            if (status == PaymentStatus.SCHEDULED && scheduledDate != null) {
+                scheduledDates.merge(scheduledDate, sign, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+        }
+
+        private static BigDecimal add(BigDecimal total, BigDecimal amount, int sign) {
+            if (amount == null) {
+                return total;
+            }
+            return sign > 0 ? total.add(amount) : total.subtract(amount);
+        }
+    }
+}
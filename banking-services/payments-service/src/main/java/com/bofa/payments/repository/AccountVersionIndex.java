@@ -0,0 +1,33 @@
+package com.bofa.payments.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A counter per account, bumped on every write that touches the account: both accounts when a payment
+// moves between them. It must run after the indexes that hold payment data, so a reader that takes the
+// version before reading the data may see data newer than the version, never older.
+class AccountVersionIndex implements PaymentIndex {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(StoredPayment previous, StoredPayment current) {
+        if (previous != null && previous.accountId() != null
+                && (current == null || !previous.accountId().equals(current.accountId()))) {
+            bump(previous.accountId());
+        }
+        if (current != null && current.accountId() != null) {
+            bump(current.accountId());
+        }
+    }
+
+    long version(String accountId) {
+        AtomicLong version = versions.get(accountId);
+        return version == null ? 0 : version.get();
+    }
+
+    private void bump(String accountId) {
+        versions.computeIfAbsent(accountId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
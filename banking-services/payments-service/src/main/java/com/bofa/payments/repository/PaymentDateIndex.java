@@ -0,0 +1,65 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.PaymentKey;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.util.MergingIterator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Payments ordered by scheduled date, one map per status, so a date range of one status never touches
+// payments in other statuses and finding due payments never touches executed history.
+class PaymentDateIndex implements PaymentIndex {
+
+    static final Comparator<StoredPayment> BY_KEY = Comparator.comparing(StoredPayment::key);
+
+    private final List<ConcurrentNavigableMap<PaymentSortKey, StoredPayment>> byStatus = new ArrayList<>();
+
+    PaymentDateIndex() {
+        for (int i = 0; i < PaymentStatus.values().length; i++) {
+            byStatus.add(new ConcurrentSkipListMap<>());
+        }
+    }
+
+    @Override
+    public void update(StoredPayment previous, StoredPayment current) {
+        if (previous != null && previous.status() != null && (current == null
+                || previous.status() != current.status() || previous.key().compareTo(current.key()) != 0)) {
+            byStatus.get(previous.status().ordinal()).remove(previous.key());
+        }
+        if (current != null && current.status() != null) {
+            byStatus.get(current.status().ordinal()).put(current.key(), current);
+        }
+    }
+
+    Collection<StoredPayment> dueAfter(PaymentKey after, LocalDate to) {
+        PaymentSortKey start = PaymentSortKey.of(after);
+        PaymentSortKey end = PaymentSortKey.dayStart(to.plusDays(1));
+        if (start.compareTo(end) >= 0) {
+            return List.of();
+        }
+        return byStatus.get(PaymentStatus.SCHEDULED.ordinal()).subMap(start, false, end, false).values();
+    }
+
+    // Walks the range lazily. Without a status the per-status ranges are merged in key order; a payment
+    // changing status mid-walk can be seen in both maps, and the merge drops the repeat.
+    Stream<StoredPayment> between(LocalDate from, LocalDate to, PaymentStatus status) {
+        PaymentSortKey start = PaymentSortKey.dayStart(from);
+        PaymentSortKey end = PaymentSortKey.dayStart(to.plusDays(1));
+        if (status != null) {
+            return byStatus.get(status.ordinal()).subMap(start, end).values().stream();
+        }
+        List<Iterator<StoredPayment>> ranges = new ArrayList<>(byStatus.size());
+        for (ConcurrentNavigableMap<PaymentSortKey, StoredPayment> payments : byStatus) {
+            ranges.add(payments.subMap(start, end).values().iterator());
+        }
+        return MergingIterator.stream(ranges, BY_KEY);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+
+// Receives one payment change: its sequence in the event ring, the status it replaced (null for a new
+// payment) and a copy of the payment as written.
+@FunctionalInterface
+public interface PaymentEventHandler {
+
+    void onEvent(long sequence, PaymentStatus previousStatus, Payment payment);
+}
@@ -0,0 +1,188 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.PaymentStatus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of payment changes in the Disruptor style. A writer claims a sequence with one atomic
+ * increment and fills the slot it maps to, so publishing neither allocates nor locks. Each slot carries
+ * the sequence it holds, seqlock style: readers check it before and after copying a slot and skip ahead
+ * when writers have lapped them. Writers never wait for readers or for each other, so a reader more than a
+ * ring behind loses the oldest events and sees a gap in the sequence numbers. A reader that has caught up
+ * can park until the next publish; writers unpark parked readers without taking a lock.
+ */
+final class PaymentEventRing {
+
+    private static final long EMPTY = -1;
+    // A slot word is the sequence shifted left by three over a tag: the previous status's ordinal plus
+    // one (0 when there was none) once published, or one of these while no event can be read from it.
+    private static final int TAG_BITS = 3;
+    private static final int LOST = 6;
+    private static final int WRITING = 7;
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final VarHandle WORD;
+    private static final VarHandle PAYMENT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            WORD = lookup.findVarHandle(Slot.class, "word", long.class);
+            PAYMENT = lookup.findVarHandle(Slot.class, "payment", StoredPayment.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        if (STATUSES.length >= LOST) {
+            throw new ExceptionInInitializerError("Payment statuses do not fit the event slot tag");
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final Queue<Thread> sleepers = new ConcurrentLinkedQueue<>();
+
+    PaymentEventRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event ring size must be a power of two");
+        }
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        mask = capacity - 1;
+    }
+
+    // Called under the payment's map bin lock, so one payment's events get sequences in version order.
+    long claim() {
+        return claimed.getAndIncrement();
+    }
+
+    /**
+     * Called once the bin lock is released, with the sequence claimed under it. Stored images are
+     * immutable, so the slot holds the repository's own image. A writer that finds the slot still held by
+     * a writer a full ring behind takes it over rather than waiting: the image goes in with a
+     * compare-and-set, so the older writer can no longer store its image, and if the older one got there
+     * first this event is marked lost instead. Either way readers see a gap, never a mixed-up event.
+     */
+    void publish(long sequence, PaymentStatus previousStatus, StoredPayment image) {
+        Slot slot = slots[(int) (sequence & mask)];
+        long word;
+        StoredPayment replaced;
+        do {
+            word = (long) WORD.getVolatile(slot);
+            if (word != EMPTY && sequenceOf(word) >= sequence) {
+                return; // lapped before the slot was ours; readers skip this sequence
+            }
+            replaced = (StoredPayment) PAYMENT.getVolatile(slot);
+        } while (!WORD.compareAndSet(slot, word, word(sequence, WRITING)));
+        boolean stored = PAYMENT.compareAndSet(slot, replaced, image);
+        int tag = !stored ? LOST : previousStatus == null ? 0 : previousStatus.ordinal() + 1;
+        // A newer writer may have taken the slot over meanwhile; its word then stays.
+        WORD.compareAndSet(slot, word(sequence, WRITING), word(sequence, tag));
+        Thread sleeper;
+        while ((sleeper = sleepers.poll()) != null) {
+            LockSupport.unpark(sleeper);
+        }
+    }
+
+    // Waits until read(fromSequence, ...) can make progress; returns false when the timeout passes first.
+    // A sleeper queues itself before checking again, so a publish after that check always unparks it.
+    boolean awaitPublished(long fromSequence, long timeoutNanos) throws InterruptedException {
+        if (readable(fromSequence)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        Thread current = Thread.currentThread();
+        try {
+            while (true) {
+                sleepers.add(current);
+                if (readable(fromSequence)) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                sleepers.remove(current);
+            }
+        } finally {
+            sleepers.remove(current);
+        }
+    }
+
+    // Hands up to maxEvents events, starting at fromSequence, to the handler and stops at the first
+    // sequence not yet published. Returns the sequence to read next.
+    long read(long fromSequence, int maxEvents, PaymentEventHandler handler) {
+        long next = Math.max(fromSequence, oldest());
+        int read = 0;
+        while (read < maxEvents && next < claimed.get()) {
+            Slot slot = slots[(int) (next & mask)];
+            long before = (long) WORD.getAcquire(slot);
+            if (before == EMPTY || sequenceOf(before) < next || before == word(next, WRITING)) {
+                break;
+            }
+            if (sequenceOf(before) > next || tagOf(before) == LOST) {
+                next = Math.max(next + 1, oldest());
+                continue;
+            }
+            StoredPayment image = (StoredPayment) PAYMENT.getAcquire(slot);
+            if ((long) WORD.getVolatile(slot) != before) {
+                next = Math.max(next + 1, oldest());
+                continue;
+            }
+            int tag = tagOf(before);
+            PaymentStatus previousStatus = tag == 0 ? null : STATUSES[tag - 1];
+            handler.onEvent(next, previousStatus, image.toPayment());
+            next++;
+            read++;
+        }
+        return next;
+    }
+
+    long nextSequence() {
+        return claimed.get();
+    }
+
+    private boolean readable(long fromSequence) {
+        long next = Math.max(fromSequence, oldest());
+        if (next != fromSequence) {
+            return true; // lapped; read skips ahead
+        }
+        if (next >= claimed.get()) {
+            return false;
+        }
+        long current = (long) WORD.getVolatile(slots[(int) (next & mask)]);
+        return current != EMPTY && sequenceOf(current) >= next && current != word(next, WRITING);
+    }
+
+    private long oldest() {
+        return Math.max(0, claimed.get() - slots.length);
+    }
+
+    private static long word(long sequence, int tag) {
+        return sequence << TAG_BITS | tag;
+    }
+
+    private static long sequenceOf(long word) {
+        return word >>> TAG_BITS;
+    }
+
+    private static int tagOf(long word) {
+        return (int) word & ((1 << TAG_BITS) - 1);
+    }
+
+    private static final class Slot {
+        volatile long word = EMPTY;
+        volatile StoredPayment payment;
+    }
+}
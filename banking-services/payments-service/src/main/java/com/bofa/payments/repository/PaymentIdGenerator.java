@@ -0,0 +1,9 @@
+package com.bofa.payments.repository;
+
+// Source of ids for new payments. Ids in canonical lowercase UUID form are stored as two longs; any
+// other string still works but is kept whole.
+@FunctionalInterface
+public interface PaymentIdGenerator {
+
+    String nextId();
+}
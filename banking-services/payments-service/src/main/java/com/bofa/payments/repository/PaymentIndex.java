@@ -0,0 +1,9 @@
+package com.bofa.payments.repository;
+
+// Secondary structures kept in step with the payment map. Called while the map holds the lock for
+// the payment, with the stored image it replaces (null for a new payment) and the new image (null when
+// the payment moves to an account on another shard).
+interface PaymentIndex {
+
+    void update(StoredPayment previous, StoredPayment current);
+}
@@ -0,0 +1,541 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of payment writes. Every record is a full, versioned image of the
+ * payment, or of a recurring schedule with its materialized count, so replay is a sequence of upserts
+ * that keep the highest version or count: the newest snapshot is
+ * loaded first and the journal tail written after it is applied on top. That is also what lets
+ * snapshots run without pausing writers. A failed force leaves the journal failed: the write that was
+ * waiting on it, and every write after it, is rejected rather than waiting for a flush that will not come.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.journal.enabled", havingValue = "true")
+public class PaymentJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentJournal.class);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int RECORD_HEADER_BYTES = 8; // length + checksum
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte PAYMENT_RECORD = 0;
+    private static final byte SCHEDULE_RECORD = 1;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long snapshotEvery;
+    private final boolean syncCommit;
+    private final long flushIntervalMillis;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object commitMonitor = new Object();
+    private final RecordBuffer recordBytes = new RecordBuffer();
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final CRC32C checksum = new CRC32C();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long lastSequence;
+    private long appendedSinceSnapshot;
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+    private Supplier<Collection<Payment>> snapshotSource;
+    private Supplier<Collection<RecurringScheduleRepository.Entry>> scheduleSource;
+    private ScheduledExecutorService flusher;
+    private ScheduledExecutorService snapshotter;
+
+    public PaymentJournal(@Value("${payments.journal.directory:data/journal}") String directory,
+                          @Value("${payments.journal.segment-size-mb:64}") int segmentSizeMb,
+                          @Value("${payments.journal.snapshot-every:1000000}") long snapshotEvery,
+                          @Value("${payments.journal.sync-commit:true}") boolean syncCommit,
+                          @Value("${payments.journal.flush-interval-ms:2}") long flushIntervalMillis) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = Math.multiplyExact(segmentSizeMb, 1024 * 1024);
+        this.snapshotEvery = snapshotEvery;
+        this.syncCommit = syncCommit;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Replays the newest snapshot and every journal record written after it into the sinks.
+     */
+    public void recover(Consumer<Payment> sink, ObjLongConsumer<RecurringSchedule> scheduleSink) {
+        try {
+            Files.createDirectories(directory);
+            long snapshotSequence = loadNewestSnapshot(sink, scheduleSink);
+            long sequence = snapshotSequence;
+            for (Path file : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                sequence = Math.max(sequence, replaySegment(file, snapshotSequence, sink, scheduleSink));
+            }
+            lastSequence = sequence;
+            appendedSequence = sequence;
+            durableSequence = sequence;
+            pruneBefore(snapshotSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to recover payment journal from " + directory, e);
+        }
+    }
+
+    /**
+     * Opens a fresh segment after {@link #recover} and starts the group-commit flusher. Snapshots are
+     * taken from {@code source} and {@code schedules}, which must reflect everything appended so far.
+     */
+    public void start(Supplier<Collection<Payment>> source, Supplier<Collection<RecurringScheduleRepository.Entry>> schedules) {
+        this.snapshotSource = source;
+        this.scheduleSource = schedules;
+        appendLock.lock();
+        try {
+            openSegment(lastSequence + 1);
+        } finally {
+            appendLock.unlock();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(daemon("payment-journal-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        snapshotter = Executors.newSingleThreadScheduledExecutor(daemon("payment-journal-snapshot"));
+    }
+
+    public void append(Payment payment) {
+        append(PAYMENT_RECORD, out -> writePayment(out, payment));
+    }
+
+    // Written after the occurrences it counts, so replay restores those payments before the count.
+    public void append(RecurringSchedule schedule, long materialized) {
+        append(SCHEDULE_RECORD, out -> writeSchedule(out, schedule, materialized));
+    }
+
+    private void append(byte type, RecordWriter writer) {
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Payment journal is closed");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Payment journal failed", failure);
+            }
+            long sequence = lastSequence + 1;
+            recordBytes.reset();
+            recordOut.writeLong(sequence);
+            recordOut.writeByte(type);
+            writer.write(recordOut);
+            int length = recordBytes.size();
+            if (segment.remaining() < RECORD_HEADER_BYTES + length) {
+                if (RECORD_HEADER_BYTES + length > segmentBytes) {
+                    throw new IllegalStateException("Journal record of " + length + " bytes exceeds segment size");
+                }
+                try {
+                    force(segment);
+                } catch (RuntimeException e) {
+                    fail(e);
+                    throw e;
+                }
+                channel.close();
+                openSegment(sequence);
+            }
+            byte[] bytes = recordBytes.array();
+            checksum.reset();
+            checksum.update(bytes, 0, length);
+            segment.putInt(length);
+            segment.putInt((int) checksum.getValue());
+            segment.put(bytes, 0, length);
+            lastSequence = sequence;
+            appendedSequence = sequence;
+            if (++appendedSinceSnapshot >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+                appendedSinceSnapshot = 0;
+                snapshotter.execute(this::snapshot);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to payment journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until everything appended before this call has been forced to disk. Concurrent writers
+     * share the same force, which is what keeps synchronous commits close to in-memory throughput.
+     */
+    public void awaitDurable() {
+        if (!syncCommit) {
+            return;
+        }
+        long target = appendedSequence;
+        if (durableSequence >= target) {
+            return;
+        }
+        synchronized (commitMonitor) {
+            while (durableSequence < target) {
+                if (failure != null) {
+                    throw new IllegalStateException("Payment journal failed before commit", failure);
+                }
+                if (closed) {
+                    throw new IllegalStateException("Payment journal closed before commit");
+                }
+                try {
+                    commitMonitor.wait(flushIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal commit", e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        boolean pending;
+        appendLock.lock();
+        try {
+            pending = appendedSinceSnapshot > 0;
+        } finally {
+            appendLock.unlock();
+        }
+        if (pending && snapshotRunning.compareAndSet(false, true)) {
+            snapshot();
+        }
+        appendLock.lock();
+        try {
+            closed = true;
+            force(segment);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close payment journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        flush();
+    }
+
+    // Runs on the flusher; an exception escaping it would cancel the schedule and strand every waiter.
+    private void flush() {
+        long target = appendedSequence;
+        if (target > durableSequence && failure == null) {
+            MappedByteBuffer current;
+            appendLock.lock();
+            try {
+                current = segment;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                // Segments are forced when they roll, so forcing the current one covers everything up to target.
+                force(current);
+                durableSequence = target;
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+        synchronized (commitMonitor) {
+            commitMonitor.notifyAll();
+        }
+    }
+
+    // Package-private so tests can simulate a failing disk.
+    void force(MappedByteBuffer buffer) {
+        buffer.force();
+    }
+
+    private void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+            log.error("Payment journal failed; rejecting further writes", cause);
+        }
+    }
+
+    private void snapshot() {
+        try {
+            long fromSequence;
+            appendLock.lock();
+            try {
+                fromSequence = lastSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            // Payments changed while we iterate are rewritten by records after fromSequence on replay.
+            Path temporary = directory.resolve(SNAPSHOT_PREFIX + "in-progress" + SNAPSHOT_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeLong(fromSequence);
+                for (Payment payment : snapshotSource.get()) {
+                    out.writeBoolean(true);
+                    writePayment(out, payment);
+                }
+                out.writeBoolean(false);
+                for (RecurringScheduleRepository.Entry entry : scheduleSource.get()) {
+                    out.writeBoolean(true);
+                    writeSchedule(out, entry.schedule(), entry.materialized());
+                }
+                out.writeBoolean(false);
+            }
+            try (FileChannel written = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                written.force(true);
+            }
+            Path snapshot = directory.resolve(snapshotName(fromSequence));
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            pruneBefore(fromSequence);
+        } catch (IOException | RuntimeException e) {
+            // The journal still holds every record, so a failed snapshot only delays pruning.
+            log.error("Unable to write payment snapshot", e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    private void pruneBefore(long snapshotSequence) throws IOException {
+        for (Path file : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (startSequence(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < snapshotSequence) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextStart = startSequence(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            if (nextStart - 1 <= snapshotSequence) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    private long loadNewestSnapshot(Consumer<Payment> sink, ObjLongConsumer<RecurringSchedule> scheduleSink) throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path newest = snapshots.get(snapshots.size() - 1);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(newest), 1 << 16))) {
+            long fromSequence = in.readLong();
+            while (in.readBoolean()) {
+                sink.accept(readPayment(in));
+            }
+            while (in.readBoolean()) {
+                readSchedule(in, scheduleSink);
+            }
+            return fromSequence;
+        }
+    }
+
+    private long replaySegment(Path file, long afterSequence, Consumer<Payment> sink,
+                               ObjLongConsumer<RecurringSchedule> scheduleSink) throws IOException {
+        long sequence = 0;
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int expectedChecksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                CRC32C recordChecksum = new CRC32C();
+                recordChecksum.update(bytes);
+                if ((int) recordChecksum.getValue() != expectedChecksum) {
+                    break; // torn write at the tail of the journal
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                sequence = in.readLong();
+                if (sequence <= afterSequence) {
+                    continue;
+                }
+                if (in.readByte() == SCHEDULE_RECORD) {
+                    readSchedule(in, scheduleSink);
+                } else {
+                    sink.accept(readPayment(in));
+                }
+            }
+        }
+        return sequence;
+    }
+
+    private void openSegment(long startSequence) {
+        try {
+            channel = FileChannel.open(directory.resolve(segmentName(startSequence)),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open journal segment in " + directory, e);
+        }
+    }
+
+    private List<Path> listFiles(String prefix, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix)
+                        && name.substring(prefix.length(), name.length() - suffix.length()).chars().allMatch(Character::isDigit);
+            }).forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(startSequence(a, prefix, suffix), startSequence(b, prefix, suffix)));
+        return files;
+    }
+
+    private static long startSequence(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static String segmentName(long startSequence) {
+        return SEGMENT_PREFIX + String.format("%020d", startSequence) + SEGMENT_SUFFIX;
+    }
+
+    private static String snapshotName(long sequence) {
+        return SNAPSHOT_PREFIX + String.format("%020d", sequence) + SNAPSHOT_SUFFIX;
+    }
+
+    private static void writePayment(DataOutput out, Payment payment) throws IOException {
+        out.writeUTF(payment.getPaymentId());
+        out.writeUTF(payment.getAccountId());
+        writeDecimal(out, payment.getPrincipal());
+        writeDecimal(out, payment.getInterest());
+        writeDate(out, payment.getScheduledDate());
+        writeDate(out, payment.getExecutedDate());
+        out.writeByte(payment.getStatus() == null ? -1 : payment.getStatus().ordinal());
+        out.writeLong(payment.getVersion());
+    }
+
+    private static Payment readPayment(DataInput in) throws IOException {
+        Payment payment = new Payment();
+        payment.setPaymentId(in.readUTF());
+        payment.setAccountId(in.readUTF());
+        payment.setPrincipal(readDecimal(in));
+        payment.setInterest(readDecimal(in));
+        payment.setScheduledDate(readDate(in));
+        payment.setExecutedDate(readDate(in));
+        byte status = in.readByte();
+        payment.setStatus(status < 0 ? null : PaymentStatus.values()[status]);
+        payment.setVersion(in.readLong());
+        return payment;
+    }
+
+    private static void writeSchedule(DataOutput out, RecurringSchedule schedule, long materialized) throws IOException {
+        out.writeUTF(schedule.scheduleId());
+        out.writeUTF(schedule.accountId());
+        writeDecimal(out, schedule.principal());
+        writeDecimal(out, schedule.interest());
+        out.writeByte(schedule.frequency().ordinal());
+        out.writeInt(schedule.interval());
+        writeDate(out, schedule.startDate());
+        writeDate(out, schedule.endDate());
+        out.writeLong(materialized);
+    }
+
+    private static void readSchedule(DataInput in, ObjLongConsumer<RecurringSchedule> sink) throws IOException {
+        RecurringSchedule schedule = new RecurringSchedule(in.readUTF(), in.readUTF(), readDecimal(in), readDecimal(in),
+                RecurringSchedule.Frequency.values()[in.readByte()], in.readInt(), readDate(in), readDate(in));
+        sink.accept(schedule, in.readLong());
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int length = in.readShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeInt(date == null ? NO_DATE : (int) date.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(256);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
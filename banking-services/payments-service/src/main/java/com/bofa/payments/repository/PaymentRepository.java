@@ -1,63 +1,570 @@
 package com.bofa.payments.repository;
 
 import com.bofa.payments.exception.PaymentNotFoundException;
+import com.bofa.payments.model.AccountSummary;
 import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentKey;
 import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
+import com.bofa.payments.repository.RecurringScheduleRepository.Entry;
+import com.bofa.payments.util.MergingIterator;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 public class PaymentRepository {
 
-    private final Map<String, Payment> payments = new ConcurrentHashMap<>();
+    private static final int DEFAULT_EVENT_RING_SIZE = 1 << 16;
+    // Expected version of a store, which writes whatever version is stored.
+    private static final long ANY_VERSION = -1;
+
+    private final PaymentShard[] shards;
+    private final Map<String, String> accountIds = new ConcurrentHashMap<>();
+    private final RecurringScheduleRepository schedules = new RecurringScheduleRepository();
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final PaymentJournal journal;
+    private final PaymentEventRing events;
+    private final PaymentIdGenerator idGenerator;
+    private final ThreadLocal<Write> writes = ThreadLocal.withInitial(Write::new);
+
+    public PaymentRepository() {
+        this(Optional.empty());
+    }
+
+    public PaymentRepository(Optional<PaymentJournal> journal) {
+        this(journal, DEFAULT_EVENT_RING_SIZE);
+    }
+
+    public PaymentRepository(Optional<PaymentJournal> journal, int eventRingSize) {
+        this(journal, new TimeOrderedPaymentIdGenerator(), eventRingSize);
+    }
+
+    public PaymentRepository(Optional<PaymentJournal> journal, PaymentIdGenerator idGenerator, int eventRingSize) {
+        this(journal, idGenerator, eventRingSize, 1);
+    }
+
+    /**
+     * With more than one shard, accounts are hashed to {@code shardCount} shards, each holding its
+     * accounts' payments and indexes and owning a single-writer executor; see {@link #callOnShard}.
+     * Reads of one account go to its shard, and reads across accounts fan out over every shard.
+     */
+    @Autowired
+    public PaymentRepository(Optional<PaymentJournal> journal,
+                             PaymentIdGenerator idGenerator,
+                             @Value("${payments.events.ring-size:65536}") int eventRingSize,
+                             @Value("${payments.shards.count:1}") int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        this.journal = journal.orElse(null);
+        this.idGenerator = idGenerator;
+        this.events = new PaymentEventRing(eventRingSize);
+        this.shards = new PaymentShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new PaymentShard(i, shardCount > 1);
+        }
+    }
 
     @PostConstruct
     void seed() {
-        add(PaymentSeedFactory.create("CHK-100", BigDecimal.valueOf(1200), LocalDate.now().plusDays(2)));
-        add(PaymentSeedFactory.create("CHK-200", BigDecimal.valueOf(850), LocalDate.now().plusDays(5)));
+        if (journal != null) {
+            journal.recover(this::restore, schedules::restore);
+            journal.start(this::snapshot, schedules::findAll);
+        }
+        if (count() > 0) {
+            return;
+        }
+        add(PaymentSeedFactory.create(idGenerator.nextId(), "CHK-100", BigDecimal.valueOf(1200), LocalDate.now().plusDays(2)));
+        add(PaymentSeedFactory.create(idGenerator.nextId(), "CHK-200", BigDecimal.valueOf(850), LocalDate.now().plusDays(5)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (PaymentShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String accountId) {
+        if (shards.length == 1) {
+            return 0;
+        }
+        int hash = accountId == null ? 0 : accountId.hashCode();
+        return Math.floorMod(hash ^ hash >>> 16, shards.length);
+    }
+
+    // Runs a write operation for the account on its shard's writer and waits for it. Unsharded, or already
+    // on that writer, it runs inline. Operations on one account therefore never race each other.
+    public <T> T callOnShard(String accountId, Supplier<T> task) {
+        return shards[shardOf(accountId)].call(task);
+    }
+
+    // Splits the items by their account's shard, keeping their order within a shard, and runs the task
+    // once per non-empty shard on that shard's writer, all shards in parallel. Returns when all are done.
+    public <T> void forEachShard(List<T> items, Function<T, String> accountOf, Consumer<List<T>> task) {
+        if (shards.length == 1) {
+            task.accept(items);
+            return;
+        }
+        List<List<T>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            byShard.get(shardOf(accountOf.apply(item))).add(item);
+        }
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            List<T> group = byShard.get(i);
+            if (!group.isEmpty()) {
+                running.add(shards[i].submit(() -> task.accept(group)));
+            }
+        }
+        PaymentShard.join(CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)));
     }
 
     public Payment add(Payment payment) {
-        payments.put(payment.getPaymentId(), payment);
+        store(payment);
+        commit();
         return payment;
     }
 
     public Payment createScheduled(String accountId, BigDecimal principal, BigDecimal interest, LocalDate date) {
-        Payment payment = new Payment(UUID.randomUUID().toString(), accountId, principal, interest, date, null, PaymentStatus.SCHEDULED);
+        Payment payment = new Payment(idGenerator.nextId(), accountId, principal, interest, date, null, PaymentStatus.SCHEDULED);
         return add(payment);
     }
 
+    // Schedules go through the journal like payments, so they survive a restart with the payments they
+    // materialized.
+    public Entry createSchedule(String accountId, BigDecimal principal, BigDecimal interest,
+                                RecurringSchedule.Frequency frequency, int interval, LocalDate startDate, LocalDate endDate) {
+        RecurringSchedule schedule = new RecurringSchedule(RecurringSchedule.scheduleId(idGenerator.nextId()), accountId,
+                principal, interest, frequency, interval, startDate, endDate);
+        Entry entry = schedules.add(schedule);
+        if (journal != null) {
+            journal.append(schedule, 0);
+        }
+        commit();
+        return entry;
+    }
+
+    // Stores the schedule's occurrences up to the date that are still virtual, then journals the new
+    // materialized count after them, so replay never counts an occurrence it has no payment for.
+    public int materialize(Entry entry, LocalDate until) {
+        RecurringSchedule schedule = entry.schedule();
+        synchronized (entry) {
+            long first = entry.materialized();
+            long n = first;
+            LocalDate date;
+            if (n >= entry.occurrences() || schedule.occurrenceDate(n).isAfter(until)) {
+                return 0;
+            }
+            schedules.beginWrite(entry);
+            try {
+                while ((date = schedule.occurrenceDate(n)) != null && !date.isAfter(until)) {
+                    store(schedule.occurrence(n));
+                    n++;
+                }
+                schedules.materializedThrough(entry, n);
+                if (journal != null) {
+                    journal.append(schedule, n);
+                }
+            } finally {
+                schedules.endWrite(entry);
+            }
+            commit();
+            return (int) (n - first);
+        }
+    }
+
+    // Reads only; schedules change through createSchedule and materialize.
+    public RecurringScheduleRepository schedules() {
+        return schedules;
+    }
+
+    public List<Payment> createScheduledBatch(List<Payment> drafts) {
+        for (Payment draft : drafts) {
+            draft.setPaymentId(idGenerator.nextId());
+            draft.setExecutedDate(null);
+            draft.setStatus(PaymentStatus.SCHEDULED);
+            store(draft);
+        }
+        commit();
+        return drafts;
+    }
+
+    // Looks in every shard. A payment caught moving between shards can show up in two, and the newer
+    // image wins.
     public Payment find(String paymentId) {
-        Payment payment = payments.get(paymentId);
+        PaymentSortKey probe = PaymentSortKey.probe(paymentId);
+        StoredPayment payment = null;
+        for (PaymentShard shard : shards) {
+            StoredPayment image = shard.payments.get(probe);
+            if (image != null && (payment == null || image.version() > payment.version())) {
+                payment = image;
+            }
+        }
         if (payment == null) {
             throw new PaymentNotFoundException(paymentId);
         }
-        return payment;
+        return payment.toPayment();
     }
 
     public List<Payment> findByAccount(String accountId) {
-        return payments.values().stream()
-                .filter(p -> p.getAccountId().equals(accountId))
-                .sorted((a, b) -> a.getScheduledDate().compareTo(b.getScheduledDate()))
-                .toList();
+        return copies(shardFor(accountId).accountIndex.findAfter(accountId, null), Integer.MAX_VALUE);
+    }
+
+    // Keyset page of an account's history in (scheduledDate, paymentId) order; a null cursor starts at the beginning.
+    public List<Payment> findByAccount(String accountId, PaymentKey after, int limit) {
+        return copies(shardFor(accountId).accountIndex.findAfter(accountId, after), limit);
+    }
+
+    // Walks the index lazily, so callers can stream a history of any size without buffering it.
+    public Stream<Payment> streamByAccount(String accountId) {
+        return shardFor(accountId).accountIndex.findAfter(accountId, null).stream().map(StoredPayment::toPayment);
+    }
+
+    // Scheduled payments due on or before the given date, in (scheduledDate, paymentId) order after the cursor.
+    public List<Payment> findScheduledDue(PaymentKey after, LocalDate to, int limit) {
+        if (shards.length == 1) {
+            return copies(shards[0].dateIndex.dueAfter(after, to), limit);
+        }
+        List<Iterator<StoredPayment>> due = new ArrayList<>(shards.length);
+        for (PaymentShard shard : shards) {
+            due.add(shard.dateIndex.dueAfter(after, to).iterator());
+        }
+        return copies(() -> new MergingIterator<>(due, PaymentDateIndex.BY_KEY), limit);
+    }
+
+    // Payments scheduled within [from, to] in (scheduledDate, paymentId) order, optionally of one status, walked lazily.
+    public Stream<Payment> streamByScheduledDate(LocalDate from, LocalDate to, PaymentStatus status) {
+        if (shards.length == 1) {
+            return shards[0].dateIndex.between(from, to, status).map(StoredPayment::toPayment);
+        }
+        List<Iterator<StoredPayment>> ranges = new ArrayList<>(shards.length);
+        for (PaymentShard shard : shards) {
+            ranges.add(shard.dateIndex.between(from, to, status).iterator());
+        }
+        return MergingIterator.stream(ranges, PaymentDateIndex.BY_KEY).map(StoredPayment::toPayment);
+    }
+
+    // Bumped on every write to the account, journal replay included; an account without payments is at 0.
+    // Read it before the account's payments: the payments are then at least as new as the version.
+    public long accountVersion(String accountId) {
+        return shardFor(accountId).accountVersions.version(accountId);
+    }
+
+    // Random per repository, so versions from before a restart, which start again from 0, never match.
+    public String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Stored payments plus the account's virtual occurrences, which count as scheduled. An occurrence
+     * being materialized would otherwise be counted twice or not at all, so the summary is retried when
+     * a schedule was added to the account or materialized while it was read.
+     */
+    public AccountSummary summarizeAccount(String accountId) {
+        while (true) {
+            long version = schedules.accountVersion(accountId);
+            List<Entry> entries = List.copyOf(schedules.findByAccount(accountId));
+            if (entries.isEmpty()) {
+                AccountSummary stored = shardFor(accountId).accountSummaries.summarize(accountId);
+                if (schedules.accountVersion(accountId) == version) {
+                    return stored;
+                }
+                continue;
+            }
+            long[] writes = new long[entries.size()];
+            long[] materialized = new long[entries.size()];
+            boolean writing = false;
+            for (int i = 0; i < entries.size(); i++) {
+                writes[i] = entries.get(i).writes();
+                materialized[i] = entries.get(i).materialized();
+                writing |= (writes[i] & 1) != 0;
+            }
+            if (writing) {
+                Thread.yield();
+                continue;
+            }
+            AccountSummary stored = shardFor(accountId).accountSummaries.summarize(accountId);
+            boolean changed = schedules.accountVersion(accountId) != version;
+            for (int i = 0; i < entries.size() && !changed; i++) {
+                changed = entries.get(i).writes() != writes[i];
+            }
+            if (!changed) {
+                return withVirtualOccurrences(stored, entries, materialized);
+            }
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (PaymentShard shard : shards) {
+            count += shard.payments.size();
+        }
+        return count;
+    }
+
+    public long countByStatus(PaymentStatus status) {
+        long count = 0;
+        for (PaymentShard shard : shards) {
+            count += shard.statusCounts.count(status);
+        }
+        return count;
+    }
+
+    // Every write except journal replay, in per-payment version order; see PaymentEventRing for what a slow reader loses.
+    public long readEvents(long fromSequence, int maxEvents, PaymentEventHandler handler) {
+        return events.read(fromSequence, maxEvents, handler);
+    }
+
+    // Waits up to the timeout for an event at or after fromSequence; false when none arrived.
+    public boolean awaitEvents(long fromSequence, long timeoutNanos) throws InterruptedException {
+        return events.awaitPublished(fromSequence, timeoutNanos);
+    }
+
+    public long nextEventSequence() {
+        return events.nextSequence();
     }
 
     public void update(Payment payment) {
-        payments.put(payment.getPaymentId(), payment);
+        store(payment);
+        commit();
+    }
+
+    // Fails when the payment is not on the updated account's shard, so it cannot move a payment between
+    // shards; update can.
+    public boolean compareAndSet(Payment updated, long expectedVersion) {
+        PaymentSortKey key = PaymentSortKey.of(updated.getScheduledDate(), updated.getPaymentId());
+        String accountId = internAccount(updated.getAccountId());
+        PaymentShard shard = shardFor(accountId);
+        Write write = writes.get().begin(updated, accountId, shard, null, expectedVersion);
+        shard.payments.computeIfPresent(key, write);
+        StoredPayment image = write.publish();
+        if (image == null) {
+            return false;
+        }
+        updated.setVersion(image.version());
+        if (journal != null) {
+            journal.append(image.toPayment());
+        }
+        commit();
+        return true;
+    }
+
+    // The map holds compact immutable images that are never handed out, so indexes always see the true
+    // previous state; callers get Payments materialized from them. A new payment's sort key also keys the
+    // map and every index. compute locks only the map bin of this payment, so writes to different payments
+    // never contend while index maintenance for a single payment is applied in order. A payment moved to
+    // an account on another shard leaves its old shard first, so it is briefly in neither.
+    private void store(Payment payment) {
+        PaymentSortKey key = PaymentSortKey.of(payment.getScheduledDate(), payment.getPaymentId());
+        String accountId = internAccount(payment.getAccountId());
+        PaymentShard shard = shardFor(accountId);
+        StoredPayment moved = leaveOtherShards(shard, key, Long.MAX_VALUE);
+        Write write = writes.get().begin(payment, accountId, shard, moved, ANY_VERSION);
+        shard.payments.compute(key, write);
+        StoredPayment image = write.publish();
+        payment.setVersion(image.version());
+        if (journal != null) {
+            journal.append(image.toPayment());
+        }
+    }
+
+    /**
+     * The compute function of store and compareAndSet, reused by each thread so a write allocates nothing
+     * but its new image. The inputs are set before compute; the function claims the event sequence under
+     * the bin lock and leaves it with the image, and publish then fills the ring slot after the lock is
+     * released.
+     */
+    private final class Write implements BiFunction<PaymentSortKey, StoredPayment, StoredPayment> {
+
+        private Payment payment;
+        private String accountId;
+        private PaymentShard shard;
+        private StoredPayment moved;
+        private long expectedVersion;
+        private long sequence;
+        private PaymentStatus previousStatus;
+        private StoredPayment image;
+
+        Write begin(Payment payment, String accountId, PaymentShard shard, StoredPayment moved, long expectedVersion) {
+            this.payment = payment;
+            this.accountId = accountId;
+            this.shard = shard;
+            this.moved = moved;
+            this.expectedVersion = expectedVersion;
+            this.image = null;
+            return this;
+        }
+
+        @Override
+        public StoredPayment apply(PaymentSortKey key, StoredPayment previous) {
+            if (expectedVersion != ANY_VERSION && previous.version() != expectedVersion) {
+                return previous;
+            }
+            StoredPayment prior = previous != null ? previous : moved;
+            long version = prior == null ? payment.getVersion() : prior.version() + 1;
+            StoredPayment current = StoredPayment.of(payment, key, prior, accountId, version);
+            shard.updateIndexes(previous, current);
+            previousStatus = prior == null ? null : prior.status();
+            sequence = events.claim();
+            image = current;
+            return current;
+        }
+
+        // Publishes the event of the write, if there was one, and returns its image; null when the version did not match.
+        StoredPayment publish() {
+            StoredPayment written = image;
+            if (written != null) {
+                events.publish(sequence, previousStatus, written);
+            }
+            payment = null;
+            accountId = null;
+            shard = null;
+            moved = null;
+            previousStatus = null;
+            image = null;
+            return written;
+        }
+    }
+
+    // One String per account however many payments it holds.
+    private String internAccount(String accountId) {
+        return accountId == null ? null : accountIds.computeIfAbsent(accountId, id -> id);
+    }
+
+    private PaymentShard shardFor(String accountId) {
+        return shards[shardOf(accountId)];
+    }
+
+    // Removes the payment from any shard other than the target unless that copy is newer than the
+    // version, and returns the copy found. Unsharded there is nothing to leave.
+    private StoredPayment leaveOtherShards(PaymentShard target, PaymentSortKey key, long version) {
+        if (shards.length == 1) {
+            return null;
+        }
+        for (PaymentShard shard : shards) {
+            if (shard != target) {
+                StoredPayment found = shard.removeUpTo(key, version);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void commit() {
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    private static AccountSummary withVirtualOccurrences(AccountSummary stored, List<Entry> entries, long[] materialized) {
+        AccountSummary.StatusTotals scheduled = stored.byStatus().get(PaymentStatus.SCHEDULED);
+        long count = scheduled.count();
+        BigDecimal principal = scheduled.principal();
+        BigDecimal interest = scheduled.interest();
+        LocalDate nextDueDate = stored.nextDueDate();
+        for (int i = 0; i < entries.size(); i++) {
+            RecurringSchedule schedule = entries.get(i).schedule();
+            long virtual = entries.get(i).occurrences() - materialized[i];
+            if (virtual <= 0) {
+                continue;
+            }
+            BigDecimal occurrences = BigDecimal.valueOf(virtual);
+            count += virtual;
+            principal = principal.add(schedule.principal().multiply(occurrences));
+            interest = interest.add(schedule.interest().multiply(occurrences));
+            LocalDate next = schedule.occurrenceDate(materialized[i]);
+            if (nextDueDate == null || next.isBefore(nextDueDate)) {
+                nextDueDate = next;
+            }
+        }
+        Map<PaymentStatus, AccountSummary.StatusTotals> byStatus = new EnumMap<>(stored.byStatus());
+        byStatus.put(PaymentStatus.SCHEDULED, new AccountSummary.StatusTotals(count, principal, interest));
+        return new AccountSummary(stored.accountId(), byStatus, nextDueDate);
+    }
+
+    // Journal records can land out of order relative to the map, so replay keeps the newest version.
+    private void restore(Payment payment) {
+        PaymentSortKey key = PaymentSortKey.of(payment.getScheduledDate(), payment.getPaymentId());
+        String accountId = internAccount(payment.getAccountId());
+        PaymentShard shard = shardFor(accountId);
+        StoredPayment elsewhere = leaveOtherShards(shard, key, payment.getVersion());
+        if (elsewhere != null && elsewhere.version() > payment.getVersion()) {
+            return;
+        }
+        shard.payments.compute(key, (paymentId, existing) -> {
+            if (existing != null && existing.version() > payment.getVersion()) {
+                return existing;
+            }
+            StoredPayment image = StoredPayment.of(payment, key, existing, accountId, payment.getVersion());
+            shard.updateIndexes(existing, image);
+            return image;
+        });
+    }
+
+    // Materializes one payment at a time while the journal writes a snapshot.
+    private Collection<Payment> snapshot() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Payment> iterator() {
+                return Arrays.stream(shards).flatMap(shard -> shard.payments.values().stream())
+                        .map(StoredPayment::toPayment).iterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(count(), Integer.MAX_VALUE);
+            }
+        };
+    }
+
+    private static List<Payment> copies(Iterable<StoredPayment> images, int limit) {
+        List<Payment> result = new ArrayList<>();
+        for (StoredPayment image : images) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(image.toPayment());
+        }
+        return result;
     }
 
     private static class PaymentSeedFactory {
-        static Payment create(String accountId, BigDecimal principal, LocalDate date) {
+        static Payment create(String paymentId, String accountId, BigDecimal principal, LocalDate date) {
             Payment payment = new Payment();
-            payment.setPaymentId(UUID.randomUUID().toString());
+            payment.setPaymentId(paymentId);
             payment.setAccountId(accountId);
             payment.setPrincipal(principal);
             payment.setInterest(principal.multiply(BigDecimal.valueOf(0.03)));
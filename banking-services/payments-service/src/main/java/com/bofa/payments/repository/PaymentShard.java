@@ -0,0 +1,99 @@
+package com.bofa.payments.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// One account shard: the payments of the accounts that hash to it and every index over them. Writes for
+// those accounts touch only this shard. When the repository is sharded, the shard also owns a
+// single-writer executor that runs its accounts' write operations one at a time. Reads can come from
+// any thread.
+final class PaymentShard {
+
+    private static final ThreadLocal<PaymentShard> CURRENT = new ThreadLocal<>();
+
+    final Map<PaymentSortKey, StoredPayment> payments = new ConcurrentHashMap<>();
+    final AccountPaymentIndex accountIndex = new AccountPaymentIndex();
+    final PaymentDateIndex dateIndex = new PaymentDateIndex();
+    final StatusCountIndex statusCounts = new StatusCountIndex();
+    final AccountSummaryIndex accountSummaries = new AccountSummaryIndex();
+    final AccountVersionIndex accountVersions = new AccountVersionIndex();
+    // Account versions go last; see AccountVersionIndex.
+    private final List<PaymentIndex> indexes = List.of(accountIndex, dateIndex, statusCounts, accountSummaries, accountVersions);
+    private final ExecutorService writer;
+
+    PaymentShard(int index, boolean ownWriter) {
+        this.writer = !ownWriter ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                CURRENT.set(this);
+                runnable.run();
+            }, "payment-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void updateIndexes(StoredPayment previous, StoredPayment current) {
+        for (PaymentIndex index : indexes) {
+            index.update(previous, current);
+        }
+    }
+
+    // Takes the payment out of this shard when it moves to an account on another one, unless the stored
+    // image is newer than the version. Returns the image found, removed or not; null when there is none.
+    StoredPayment removeUpTo(PaymentSortKey key, long version) {
+        StoredPayment[] found = new StoredPayment[1];
+        payments.computeIfPresent(key, (paymentId, image) -> {
+            found[0] = image;
+            if (image.version() > version) {
+                return image;
+            }
+            updateIndexes(image, null);
+            return null;
+        });
+        return found[0];
+    }
+
+    // Runs the task on this shard's writer and waits for it, or inline when there is no writer or the
+    // caller already is the writer.
+    <T> T call(Supplier<T> task) {
+        if (writer == null || CURRENT.get() == this) {
+            return task.get();
+        }
+        return join(CompletableFuture.supplyAsync(task, writer));
+    }
+
+    CompletableFuture<Void> submit(Runnable task) {
+        if (writer == null || CURRENT.get() == this) {
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(task, writer);
+    }
+
+    void stop() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
+    }
+
+    // Rethrows what the task threw, so a write on a shard fails the way it would on the caller's thread.
+    static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.PaymentKey;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Compact (scheduledDate, paymentId) key. Canonical lowercase UUID ids, which is what the repository
+// generates, are held as two longs whose unsigned order matches the string order; any other id is kept
+// as a string. Equality and hash cover only the id, so the same object also keys the payment map and
+// lookups by id can pass a probe of any date. Ordering puts the scheduled day in front.
+final class PaymentSortKey implements Comparable<PaymentSortKey> {
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final int day;
+    private final long high;
+    private final long low;
+    private final String customId;
+    // A range bound that sorts before every id on its day; never stored. Fits in the object's padding.
+    private final boolean dayStart;
+
+    private PaymentSortKey(int day, long high, long low, String customId, boolean dayStart) {
+        this.day = day;
+        this.high = high;
+        this.low = low;
+        this.customId = customId;
+        this.dayStart = dayStart;
+    }
+
+    static PaymentSortKey of(LocalDate scheduledDate, String paymentId) {
+        int day = scheduledDate == null ? NO_DATE : (int) scheduledDate.toEpochDay();
+        if (!isCanonicalUuid(paymentId)) {
+            return new PaymentSortKey(day, 0, 0, paymentId, false);
+        }
+        long high = hex(paymentId, 0, 8) << 32 | hex(paymentId, 9, 13) << 16 | hex(paymentId, 14, 18);
+        long low = hex(paymentId, 19, 23) << 48 | hex(paymentId, 24, 36);
+        return new PaymentSortKey(day, high, low, null, false);
+    }
+
+    static PaymentSortKey of(PaymentKey key) {
+        return of(key.scheduledDate(), key.paymentId());
+    }
+
+    static PaymentSortKey probe(String paymentId) {
+        return of(null, paymentId);
+    }
+
+    static PaymentSortKey dayStart(LocalDate date) {
+        return new PaymentSortKey((int) date.toEpochDay(), 0, 0, "", true);
+    }
+
+    boolean sameDay(PaymentSortKey other) {
+        return day == other.day;
+    }
+
+    LocalDate scheduledDate() {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    String paymentId() {
+        return customId != null ? customId : new UUID(high, low).toString();
+    }
+
+    @Override
+    public int compareTo(PaymentSortKey other) {
+        int byDay = Integer.compare(day, other.day);
+        if (byDay != 0) {
+            return byDay;
+        }
+        if (dayStart || other.dayStart) {
+            return Boolean.compare(other.dayStart, dayStart);
+        }
+        if (customId == null && other.customId == null) {
+            int byHigh = Long.compareUnsigned(high, other.high);
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(low, other.low);
+        }
+        return paymentId().compareTo(other.paymentId());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PaymentSortKey other)) {
+            return false;
+        }
+        return customId == null
+                ? other.customId == null && high == other.high && low == other.low
+                : customId.equals(other.customId) && dayStart == other.dayStart;
+    }
+
+    @Override
+    public int hashCode() {
+        return customId != null ? customId.hashCode() : Long.hashCode(high * 31 + low);
+    }
+
+    // Only the form UUID.toString produces, so coding an id and printing it back is lossless.
+    private static boolean isCanonicalUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean valid = i == 8 || i == 13 || i == 18 || i == 23
+                    ? c == '-'
+                    : c >= '0' && c <= '9' || c >= 'a' && c <= 'f';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(s.charAt(i), 16);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bofa.payments.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Random version 4 UUIDs, the ids the repository generated before time-ordered ids.
+@Component
+@ConditionalOnProperty(name = "payments.ids.generator", havingValue = "random")
+public class RandomPaymentIdGenerator implements PaymentIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.RecurringSchedule;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recurring schedules and how far each has been materialized: occurrences below a schedule's
+ * materialized count exist as payments in {@link PaymentRepository}, the rest are virtual. The payment
+ * repository owns this store and journals every change to it next to the payments it materializes.
+ *
+ * <p>Schedules with virtual occurrences left are also indexed by the date of the first of them, so a
+ * due-date range only visits schedules that can have a virtual occurrence on or before its end.
+ */
+public class RecurringScheduleRepository {
+
+    private static final Comparator<DueKey> DUE_ORDER = Comparator.comparing(DueKey::date)
+            .thenComparing(DueKey::scheduleId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, Entry> schedules = new ConcurrentHashMap<>();
+    private final Map<String, List<Entry>> byAccount = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> accountVersions = new ConcurrentHashMap<>();
+    private final NavigableMap<DueKey, Entry> byNextVirtual = new ConcurrentSkipListMap<>(DUE_ORDER);
+
+    RecurringScheduleRepository() {
+    }
+
+    public static final class Entry {
+
+        private final RecurringSchedule schedule;
+        private final long occurrences;
+        private volatile long materialized;
+        // Odd while occurrences are being materialized; see PaymentRepository#summarizeAccount.
+        private volatile long writes;
+
+        private Entry(RecurringSchedule schedule) {
+            this.schedule = schedule;
+            this.occurrences = schedule.occurrenceCount();
+        }
+
+        public RecurringSchedule schedule() {
+            return schedule;
+        }
+
+        // Occurrences [0, materialized) are stored payments.
+        public long materialized() {
+            return materialized;
+        }
+
+        long occurrences() {
+            return occurrences;
+        }
+
+        long writes() {
+            return writes;
+        }
+    }
+
+    private record DueKey(LocalDate date, String scheduleId) {
+    }
+
+    Entry add(RecurringSchedule schedule) {
+        Entry entry = new Entry(schedule);
+        schedules.put(schedule.scheduleId(), entry);
+        byAccount.computeIfAbsent(schedule.accountId(), id -> new CopyOnWriteArrayList<>()).add(entry);
+        accountVersions.computeIfAbsent(schedule.accountId(), id -> new AtomicLong()).incrementAndGet();
+        if (entry.occurrences > 0) {
+            byNextVirtual.put(new DueKey(schedule.startDate(), schedule.scheduleId()), entry);
+        }
+        return entry;
+    }
+
+    // Journal replay: adds the schedule if it is new and never moves its materialized count back.
+    void restore(RecurringSchedule schedule, long materialized) {
+        Entry entry = schedules.get(schedule.scheduleId());
+        if (entry == null) {
+            entry = add(schedule);
+        }
+        materializedThrough(entry, materialized);
+    }
+
+    // Callers hold the entry's monitor while materializing, so each occurrence is stored once. The entry
+    // is indexed under its new date before the old one is removed, so a concurrent range never misses it.
+    void materializedThrough(Entry entry, long count) {
+        long previous = entry.materialized;
+        count = Math.min(count, entry.occurrences);
+        if (count <= previous) {
+            return;
+        }
+        String scheduleId = entry.schedule.scheduleId();
+        entry.materialized = count;
+        if (count < entry.occurrences) {
+            byNextVirtual.put(new DueKey(entry.schedule.occurrenceDate(count), scheduleId), entry);
+        }
+        byNextVirtual.remove(new DueKey(entry.schedule.occurrenceDate(previous), scheduleId));
+    }
+
+    void beginWrite(Entry entry) {
+        entry.writes++;
+    }
+
+    void endWrite(Entry entry) {
+        entry.writes++;
+    }
+
+    public Entry find(String scheduleId) {
+        return schedules.get(scheduleId);
+    }
+
+    public List<Entry> findByAccount(String accountId) {
+        List<Entry> entries = byAccount.get(accountId);
+        return entries == null ? List.of() : entries;
+    }
+
+    public Collection<Entry> findAll() {
+        return schedules.values();
+    }
+
+    // Schedules whose first virtual occurrence falls on or before the date, in that date's order. An entry
+    // being materialized can show up twice, which callers merging by payment key never notice.
+    public Collection<Entry> findWithVirtualOnOrBefore(LocalDate date) {
+        return byNextVirtual.headMap(new DueKey(date, null), true).values();
+    }
+
+    // Bumped whenever a schedule is added to the account, since that changes its virtual history.
+    public long accountVersion(String accountId) {
+        AtomicLong version = accountVersions.get(accountId);
+        return version == null ? 0 : version.get();
+    }
+}
@@ -0,0 +1,31 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.PaymentStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Running count of stored payments per status, so gauges never scan the map.
+class StatusCountIndex implements PaymentIndex {
+
+    private final LongAdder[] counts = new LongAdder[PaymentStatus.values().length];
+
+    StatusCountIndex() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void update(StoredPayment previous, StoredPayment current) {
+        if (previous != null && previous.status() != null) {
+            counts[previous.status().ordinal()].decrement();
+        }
+        if (current != null && current.status() != null) {
+            counts[current.status().ordinal()].increment();
+        }
+    }
+
+    long count(PaymentStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// The repository's immutable image of one payment version: one object plus a shared key, instead of a
+// Payment with its strings, decimals and dates. Amounts are unscaled longs with a byte scale; the rare amount that does
+// not fit is kept whole in the overflow array. Account ids are interned, and the sort key is shared with
+// the previous version and the indexes while the scheduled date stays the same.
+final class StoredPayment {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final byte NO_AMOUNT = Byte.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+
+    private final PaymentSortKey key;
+    private final String accountId;
+    private final long principal;
+    private final long interest;
+    private final long version;
+    private final int executedDay;
+    private final byte principalScale;
+    private final byte interestScale;
+    private final byte status;
+    private final BigDecimal[] overflow;
+
+    private StoredPayment(Payment payment, PaymentSortKey key, String accountId, long version) {
+        this.key = key;
+        this.accountId = accountId;
+        this.version = version;
+        this.executedDay = payment.getExecutedDate() == null ? PaymentSortKey.NO_DATE : (int) payment.getExecutedDate().toEpochDay();
+        this.status = payment.getStatus() == null ? NO_STATUS : (byte) payment.getStatus().ordinal();
+        BigDecimal principal = payment.getPrincipal();
+        BigDecimal interest = payment.getInterest();
+        boolean principalFits = fits(principal);
+        boolean interestFits = fits(interest);
+        this.principal = principalFits && principal != null ? principal.unscaledValue().longValue() : 0;
+        this.principalScale = principalFits && principal != null ? (byte) principal.scale() : NO_AMOUNT;
+        this.interest = interestFits && interest != null ? interest.unscaledValue().longValue() : 0;
+        this.interestScale = interestFits && interest != null ? (byte) interest.scale() : NO_AMOUNT;
+        this.overflow = principalFits && interestFits ? null
+                : new BigDecimal[] {principalFits ? null : principal, interestFits ? null : interest};
+    }
+
+    // The key must be the payment's own; the previous version's key is reused while the scheduled date is unchanged.
+    static StoredPayment of(Payment payment, PaymentSortKey key, StoredPayment previous, String accountId, long version) {
+        if (previous != null && previous.key.sameDay(key)) {
+            key = previous.key;
+        }
+        return new StoredPayment(payment, key, accountId, version);
+    }
+
+    Payment toPayment() {
+        Payment payment = new Payment(key.paymentId(), accountId, principal(), interest(), key.scheduledDate(),
+                executedDay == PaymentSortKey.NO_DATE ? null : LocalDate.ofEpochDay(executedDay), status());
+        payment.setVersion(version);
+        return payment;
+    }
+
+    PaymentSortKey key() {
+        return key;
+    }
+
+    String accountId() {
+        return accountId;
+    }
+
+    long version() {
+        return version;
+    }
+
+    PaymentStatus status() {
+        return status == NO_STATUS ? null : STATUSES[status];
+    }
+
+    BigDecimal principal() {
+        return amount(principal, principalScale, 0);
+    }
+
+    BigDecimal interest() {
+        return amount(interest, interestScale, 1);
+    }
+
+    private BigDecimal amount(long unscaled, byte scale, int overflowSlot) {
+        if (scale != NO_AMOUNT) {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+        return overflow == null ? null : overflow[overflowSlot];
+    }
+
+    private static boolean fits(BigDecimal amount) {
+        return amount == null || amount.scale() > NO_AMOUNT && amount.scale() <= Byte.MAX_VALUE && amount.precision() <= 18;
+    }
+}
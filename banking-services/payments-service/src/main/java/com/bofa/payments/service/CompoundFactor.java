@@ -0,0 +1,42 @@
+package com.bofa.payments.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * {@code (1 + annualRate / 365) ^ chargeableDays} as {@link InterestCalculator} rounds it, held in both
+ * fixed-point and {@code BigDecimal} form so a cached factor serves principals on either path.
+ */
+final class CompoundFactor {
+
+    private static final MathContext MC = new MathContext(12, RoundingMode.HALF_EVEN);
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+
+    private final FixedPointInterest.Decimal fixed;
+    private final BigDecimal growth;
+
+    private CompoundFactor(FixedPointInterest.Decimal fixed, BigDecimal factor) {
+        this.fixed = fixed;
+        this.growth = factor.subtract(BigDecimal.ONE);
+    }
+
+    static CompoundFactor compute(BigDecimal annualRate, int chargeableDays) {
+        FixedPointInterest.Decimal fixed = FixedPointInterest.compoundFactor(annualRate, chargeableDays);
+        if (fixed != null) {
+            return new CompoundFactor(fixed, BigDecimal.valueOf(fixed.unscaled, fixed.scale));
+        }
+        BigDecimal dailyRate = annualRate.divide(DAYS_PER_YEAR, MC);
+        return new CompoundFactor(null, BigDecimal.ONE.add(dailyRate).pow(chargeableDays, MC));
+    }
+
+    BigDecimal accrue(BigDecimal principal) {
+        if (fixed != null) {
+            long cents = FixedPointInterest.applyFactor(principal, fixed);
+            if (cents != FixedPointInterest.OUT_OF_RANGE) {
+                return BigDecimal.valueOf(cents, 2);
+            }
+        }
+        return principal.multiply(growth, MC).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,155 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.PaymentExecutionRequest;
+import com.bofa.payments.exception.PaymentConflictException;
+import com.bofa.payments.exception.PaymentNotFoundException;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentKey;
+import com.bofa.payments.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes SCHEDULED payments once their scheduled date arrives. Each tick reads only the due slice of
+ * the repository's scheduled-date index and fans it out to worker batches through
+ * {@link PaymentService#executePayment}, so the usual validation and optimistic versioning apply.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.scheduler.enabled", havingValue = "true")
+public class DuePaymentScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DuePaymentScheduler.class);
+    private static final int MAX_DAYS_LATE = 15; // executePayment rejects anything later
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final Clock clock;
+    private final int concurrency;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+
+    private final ExecutorService workers;
+    private ScheduledExecutorService ticker;
+
+    public DuePaymentScheduler(PaymentRepository paymentRepository,
+                               PaymentService paymentService,
+                               @Value("${payments.scheduler.concurrency:4}") int concurrency,
+                               @Value("${payments.scheduler.batch-size:500}") int batchSize,
+                               @Value("${payments.scheduler.poll-interval-ms:60000}") long pollIntervalMillis) {
+        this(paymentRepository, paymentService, Clock.systemDefaultZone(), concurrency, batchSize, pollIntervalMillis);
+    }
+
+    DuePaymentScheduler(PaymentRepository paymentRepository,
+                        PaymentService paymentService,
+                        Clock clock,
+                        int concurrency,
+                        int batchSize,
+                        long pollIntervalMillis) {
+        if (concurrency < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Scheduler concurrency and batch size must be positive");
+        }
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.clock = clock;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency,
+                runnable -> daemon(runnable, "due-payment-worker-" + workerCount.incrementAndGet()));
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "due-payment-scheduler"));
+        ticker.scheduleWithFixedDelay(this::tick, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        workers.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            executeDuePayments();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Due payment run failed", e);
+        }
+    }
+
+    /**
+     * Walks the due payments in rounds of up to {@code concurrency * batchSize} and returns how many were
+     * executed. The cursor moves past payments that fail, so they are retried on the next tick only.
+     */
+    int executeDuePayments() throws InterruptedException {
+        LocalDate today = LocalDate.now(clock);
+        PaymentExecutionRequest request = new PaymentExecutionRequest();
+        request.setExecutionDate(today);
+
+        int executed = 0;
+        PaymentKey cursor = new PaymentKey(today.minusDays(MAX_DAYS_LATE), "");
+        while (true) {
+            List<Payment> due = paymentRepository.findScheduledDue(cursor, today, concurrency * batchSize);
+            if (due.isEmpty()) {
+                return executed;
+            }
+            cursor = PaymentKey.of(due.get(due.size() - 1));
+            List<Callable<Integer>> batches = new ArrayList<>();
+            for (int start = 0; start < due.size(); start += batchSize) {
+                List<Payment> batch = due.subList(start, Math.min(start + batchSize, due.size()));
+                batches.add(() -> executeBatch(batch, request));
+            }
+            for (Future<Integer> result : workers.invokeAll(batches)) {
+                try {
+                    executed += result.get();
+                } catch (ExecutionException e) {
+                    log.error("Due payment batch failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    private int executeBatch(List<Payment> batch, PaymentExecutionRequest request) {
+        int executed = 0;
+        for (Payment payment : batch) {
+            try {
+                paymentService.executePayment(payment.getPaymentId(), request);
+                executed++;
+            } catch (PaymentValidationException | PaymentConflictException | PaymentNotFoundException e) {
+                log.warn("Skipping due payment {}: {}", payment.getPaymentId(), e.getMessage());
+            }
+        }
+        return executed;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,230 @@
+package com.bofa.payments.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Long-only evaluation of {@code principal * ((1 + annualRate / 365) ^ days - 1)} that reproduces the
+ * rounding of {@link InterestCalculator}'s {@code BigDecimal} path step for step: the 12-digit HALF_EVEN
+ * divide, the square-and-multiply loop of {@link BigDecimal#pow(int, java.math.MathContext)} at its
+ * widened working precision, the 12-digit product and the final HALF_EVEN rounding to cents. Exact
+ * products of two operands below 10^18 are carried in four base-10^9 limbs, which is all the
+ * intermediate width that loop ever needs.
+ *
+ * <p>Inputs whose unscaled values or scales do not fit those bounds return {@link #OUT_OF_RANGE} and the
+ * caller falls back to {@code BigDecimal}.
+ */
+final class FixedPointInterest {
+
+    static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    private static final int PRECISION = 12;
+    private static final int DAYS_PER_YEAR = 365;
+    private static final long LIMB = 1_000_000_000L;
+    private static final long MAX_OPERAND = 1_000_000_000_000_000_000L; // 10^18
+    private static final int MAX_OPERAND_DIGITS = 17;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPointInterest() {}
+
+    /**
+     * {@code (1 + annualRate / 365) ^ chargeableDays} rounded exactly as the {@code BigDecimal} path
+     * rounds it, or {@code null} when out of range.
+     */
+    static Decimal compoundFactor(BigDecimal annualRate, int chargeableDays) {
+        if (annualRate.signum() <= 0 || annualRate.precision() > MAX_OPERAND_DIGITS) {
+            return null;
+        }
+        Decimal dailyRate = dailyRate(annualRate.unscaledValue().longValueExact(), annualRate.scale());
+        // 1 + dailyRate must stay an exact operand below 10^18.
+        if (dailyRate.scale < 0 || dailyRate.scale > MAX_OPERAND_DIGITS) {
+            return null;
+        }
+        long onePlusRate = POWERS_OF_TEN[dailyRate.scale] + dailyRate.unscaled;
+        if (onePlusRate >= MAX_OPERAND) {
+            return null;
+        }
+        return pow(new Decimal(onePlusRate, dailyRate.scale), chargeableDays);
+    }
+
+    /**
+     * {@code principal * (factor - 1)} rounded to 12 digits and then to cents, or {@link #OUT_OF_RANGE}.
+     */
+    static long applyFactor(BigDecimal principal, Decimal factor) {
+        if (principal.signum() <= 0 || principal.precision() > MAX_OPERAND_DIGITS || factor.scale < 0 || factor.scale > MAX_OPERAND_DIGITS) {
+            return OUT_OF_RANGE;
+        }
+        long growth = factor.unscaled - POWERS_OF_TEN[factor.scale];
+        if (growth < 0) {
+            return OUT_OF_RANGE;
+        }
+        Decimal product = new Decimal(0, 0);
+        multiplyRound(principal.unscaledValue().longValueExact(), growth, PRECISION, product);
+        return toCents(product.unscaled, principal.scale() + factor.scale + product.scale);
+    }
+
+    private static Decimal dailyRate(long rateUnscaled, int rateScale) {
+        // Widen the dividend so the quotient carries more than 12 digits, then round once with the
+        // exact remainder as the sticky part.
+        int widen = MAX_OPERAND_DIGITS - digitLength(rateUnscaled);
+        long dividend = rateUnscaled * POWERS_OF_TEN[widen];
+        long quotient = dividend / DAYS_PER_YEAR;
+        long remainder = dividend % DAYS_PER_YEAR;
+        int drop = digitLength(quotient) - PRECISION;
+        long divisor = POWERS_OF_TEN[drop];
+        long kept = quotient / divisor;
+        long dropped = quotient % divisor;
+        // Compare the discarded fraction (dropped + remainder / 365) / divisor against one half.
+        int half = Long.compare(2 * (dropped * DAYS_PER_YEAR + remainder), divisor * DAYS_PER_YEAR);
+        if (half > 0 || (half == 0 && (kept & 1) == 1)) {
+            kept++;
+        }
+        return new Decimal(kept, rateScale + widen - drop);
+    }
+
+    private static Decimal pow(Decimal base, int exponent) {
+        int workPrecision = PRECISION + digitLength(exponent) + 1;
+        Decimal acc = new Decimal(1, 0);
+        boolean seenBit = false;
+        int mag = exponent;
+        for (int i = 1; ; i++) {
+            mag += mag;
+            if (mag < 0) {
+                seenBit = true;
+                multiplyRound(acc, base, workPrecision);
+            }
+            if (i == 31) {
+                break;
+            }
+            if (seenBit) {
+                multiplyRound(acc, acc, workPrecision);
+            }
+        }
+        return roundTo(acc, PRECISION);
+    }
+
+    private static void multiplyRound(Decimal acc, Decimal by, int precision) {
+        int scale = acc.scale + by.scale;
+        multiplyRound(acc.unscaled, by.unscaled, precision, acc);
+        acc.scale += scale;
+    }
+
+    /**
+     * Rounds the exact product {@code a * b} (both below 10^18) to {@code precision} significant digits
+     * with HALF_EVEN. Stores the kept digits in {@code out.unscaled} and the negated count of dropped
+     * digits in {@code out.scale}.
+     */
+    private static void multiplyRound(long a, long b, int precision, Decimal out) {
+        long a1 = a / LIMB;
+        long a0 = a % LIMB;
+        long b1 = b / LIMB;
+        long b0 = b % LIMB;
+        long low = a0 * b0;
+        long middle = a1 * b0 + a0 * b1 + low / LIMB;
+        long high = a1 * b1 + middle / LIMB;
+        long[] limbs = {low % LIMB, middle % LIMB, high % LIMB, high / LIMB};
+
+        int top = 3;
+        while (top > 0 && limbs[top] == 0) {
+            top--;
+        }
+        int digits = top * 9 + digitLength(limbs[top]);
+        int drop = digits - precision;
+        if (drop <= 0) {
+            out.unscaled = shiftRight(limbs, 0, null);
+            out.scale = 0;
+            return;
+        }
+        boolean[] sticky = new boolean[1];
+        long withGuard = shiftRight(limbs, drop - 1, sticky);
+        long kept = withGuard / 10;
+        long guard = withGuard % 10;
+        if (guard > 5 || (guard == 5 && (sticky[0] || (kept & 1) == 1))) {
+            kept++;
+        }
+        out.unscaled = kept;
+        out.scale = -drop;
+    }
+
+    // floor(limbs / 10^count); the caller guarantees the quotient fits in a long. Records in
+    // sticky[0] whether any non-zero digit was shifted out.
+    private static long shiftRight(long[] limbs, int count, boolean[] sticky) {
+        int wholeLimbs = count / 9;
+        long divisor = POWERS_OF_TEN[count % 9];
+        boolean lost = false;
+        for (int i = 0; i < wholeLimbs; i++) {
+            lost |= limbs[i] != 0;
+        }
+        long quotient = 0;
+        long remainder = 0;
+        for (int i = 3; i >= wholeLimbs; i--) {
+            long current = remainder * LIMB + limbs[i];
+            quotient = quotient * LIMB + current / divisor;
+            remainder = current % divisor;
+        }
+        if (sticky != null) {
+            sticky[0] = lost || remainder != 0;
+        }
+        return quotient;
+    }
+
+    private static Decimal roundTo(Decimal value, int precision) {
+        int drop = digitLength(value.unscaled) - precision;
+        if (drop <= 0) {
+            return value;
+        }
+        long divisor = POWERS_OF_TEN[drop];
+        long kept = value.unscaled / divisor;
+        int half = Long.compare(2 * (value.unscaled % divisor), divisor);
+        if (half > 0 || (half == 0 && (kept & 1) == 1)) {
+            kept++;
+        }
+        return new Decimal(kept, value.scale - drop);
+    }
+
+    private static long toCents(long unscaled, int scale) {
+        if (scale <= 2) {
+            int widen = 2 - scale;
+            if (widen >= POWERS_OF_TEN.length || unscaled > Long.MAX_VALUE / POWERS_OF_TEN[widen]) {
+                return OUT_OF_RANGE;
+            }
+            return unscaled * POWERS_OF_TEN[widen];
+        }
+        int drop = scale - 2;
+        if (drop >= POWERS_OF_TEN.length) {
+            return 0; // unscaled is at most 13 digits, so this is below half a cent
+        }
+        long divisor = POWERS_OF_TEN[drop];
+        long cents = unscaled / divisor;
+        int half = Long.compare(2 * (unscaled % divisor), divisor);
+        if (half > 0 || (half == 0 && (cents & 1) == 1)) {
+            cents++;
+        }
+        return cents;
+    }
+
+    private static int digitLength(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    // Non-negative decimal unscaled * 10^-scale.
+    static final class Decimal {
+        long unscaled;
+        int scale;
+
+        Decimal(long unscaled, int scale) {
+            this.unscaled = unscaled;
+            this.scale = scale;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.PaymentResponse;
+import com.bofa.payments.exception.IdempotencyKeyReusedException;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Schedule and execute results by client-supplied {@code Idempotency-Key}. The first call with a key runs;
+ * concurrent duplicates wait on its future and later replays get the stored response until the entry
+ * expires. A failed call is forgotten once its waiters are released, so the client can retry with the same key.
+ * Each entry keeps a fingerprint of its request, and reusing the key for a different request is rejected
+ * rather than answered with the first request's response.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<String, Claim> results;
+
+    public IdempotencyStore(@Value("${payments.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${payments.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .<String, Claim>build()
+                .asMap();
+    }
+
+    // Keys are scoped by operation, so the same key on schedule and on an execute never share a result.
+    // The fingerprint must be equal for requests that mean the same thing.
+    PaymentResponse execute(String scope, String idempotencyKey, Object fingerprint, Supplier<PaymentResponse> call) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new PaymentValidationException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = scope + '\n' + idempotencyKey;
+        Claim claim = new Claim(fingerprint, new CompletableFuture<>());
+        Claim existing = results.putIfAbsent(key, claim);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            return await(existing.result());
+        }
+        try {
+            PaymentResponse response = call.get();
+            claim.result().complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            results.remove(key, claim);
+            claim.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static PaymentResponse await(CompletableFuture<PaymentResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Claim(Object fingerprint, CompletableFuture<PaymentResponse> result) {
+    }
+}
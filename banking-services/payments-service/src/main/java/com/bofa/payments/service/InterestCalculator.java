@@ -1,16 +1,61 @@
 package com.bofa.payments.service;
 
+import com.bofa.payments.dto.CacheStatsResponse;
+import com.bofa.payments.dto.InterestCalculationRequest;
 import com.bofa.payments.exception.PaymentValidationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 @Component
 public class InterestCalculator {
 
-    private static final MathContext MC = new MathContext(12, RoundingMode.HALF_EVEN);
+    private static final int GRACE_DAYS = 3;
+    private static final int MAX_DAYS = 3650;
+    private static final long DEFAULT_FACTOR_CACHE_SIZE = 100_000;
+    private static final int BATCH_CHUNK_SIZE = 4_096;
+
+    // Compound factors keyed by (rate without trailing zeros, chargeable days); W-TinyLFU eviction.
+    private final Cache<FactorKey, CompoundFactor> factorCache;
+    private final List<BigDecimal> prewarmRates = new ArrayList<>();
+
+    public InterestCalculator() {
+        this(DEFAULT_FACTOR_CACHE_SIZE, "");
+    }
+
+    @Autowired
+    public InterestCalculator(@Value("${payments.interest.factor-cache.max-size:100000}") long factorCacheSize,
+                              @Value("${payments.interest.factor-cache.prewarm-rates:}") String prewarmRates) {
+        this.factorCache = Caffeine.newBuilder()
+                .maximumSize(factorCacheSize)
+                .recordStats()
+                .build();
+        for (String rate : prewarmRates.split(",")) {
+            if (!rate.isBlank()) {
+                this.prewarmRates.add(new BigDecimal(rate.trim()));
+            }
+        }
+    }
+
+    @PostConstruct
+    void prewarm() {
+        for (BigDecimal rate : prewarmRates) {
+            for (int chargeableDays = 1; chargeableDays <= MAX_DAYS - GRACE_DAYS; chargeableDays++) {
+                factor(rate, chargeableDays);
+            }
+        }
+    }
 
     public BigDecimal calculateDailyCompound(BigDecimal principal, BigDecimal annualRate, int days) {
         validate(principal, annualRate, days);
@@ -18,15 +63,68 @@ public class InterestCalculator {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal dailyRate = annualRate.divide(BigDecimal.valueOf(365), MC);
-        int chargeableDays = Math.max(0, days - 3); // 3-day grace period
+        int chargeableDays = Math.max(0, days - GRACE_DAYS);
         if (chargeableDays == 0) {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal factor = BigDecimal.ONE.add(dailyRate).pow(chargeableDays, MC);
-        BigDecimal result = principal.multiply(factor.subtract(BigDecimal.ONE), MC);
-        return result.setScale(2, RoundingMode.HALF_EVEN);
+        return factor(annualRate, chargeableDays).accrue(principal);
+    }
+
+    /**
+     * Accrues interest for every request whose {@code errors} slot is empty. Each distinct (rate, days)
+     * factor is resolved once and applied across its principals in parallel chunks. Requests that fail
+     * validation get a null result and their message in {@code errors}.
+     */
+    public BigDecimal[] calculateDailyCompound(List<InterestCalculationRequest> requests, String[] errors) {
+        int size = requests.size();
+        BigDecimal[] accrued = new BigDecimal[size];
+        CompoundFactor[] factors = new CompoundFactor[size];
+        Map<FactorKey, CompoundFactor> groups = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            InterestCalculationRequest request = requests.get(i);
+            try {
+                validate(request.getPrincipal(), request.getAnnualRate(), request.getDays());
+            } catch (PaymentValidationException e) {
+                errors[i] = e.getMessage();
+                continue;
+            }
+            int chargeableDays = Math.max(0, request.getDays() - GRACE_DAYS);
+            if (chargeableDays == 0) {
+                accrued[i] = BigDecimal.ZERO;
+                continue;
+            }
+            factors[i] = groups.computeIfAbsent(new FactorKey(request.getAnnualRate().stripTrailingZeros(), chargeableDays),
+                    this::factor);
+        }
+
+        IntStream.range(0, (size + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE).parallel().forEach(chunk -> {
+            int end = Math.min(size, (chunk + 1) * BATCH_CHUNK_SIZE);
+            for (int i = chunk * BATCH_CHUNK_SIZE; i < end; i++) {
+                if (factors[i] != null) {
+                    accrued[i] = factors[i].accrue(requests.get(i).getPrincipal());
+                }
+            }
+        });
+        return accrued;
+    }
+
+    public CacheStatsResponse factorCacheStats() {
+        CacheStats stats = factorCache.stats();
+        return new CacheStatsResponse(factorCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private CompoundFactor factor(BigDecimal annualRate, int chargeableDays) {
+        // BigDecimal.equals is scale-sensitive; the factor only depends on the rate's value.
+        return factor(new FactorKey(annualRate.stripTrailingZeros(), chargeableDays));
+    }
+
+    private CompoundFactor factor(FactorKey key) {
+        return factorCache.get(key, k -> CompoundFactor.compute(k.annualRate(), k.chargeableDays()));
     }
 
     private void validate(BigDecimal principal, BigDecimal rate, int days) {
@@ -36,8 +134,11 @@ public class InterestCalculator {
         if (rate == null || rate.compareTo(BigDecimal.ZERO) <= 0) {
             throw new PaymentValidationException("Annual rate must be positive");
         }
-        if (days < 0 || days > 3650) {
+        if (days < 0 || days > MAX_DAYS) {
             throw new PaymentValidationException("Days must be between 0 and 3650");
         }
     }
+
+    private record FactorKey(BigDecimal annualRate, int chargeableDays) {
+    }
 }
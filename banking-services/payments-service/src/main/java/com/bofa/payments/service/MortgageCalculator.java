@@ -1,8 +1,11 @@
 package com.bofa.payments.service;
 
 import com.bofa.payments.dto.AmortizationInstallment;
+import com.bofa.payments.dto.AmortizationSchedule;
+import com.bofa.payments.dto.AmortizationSchedulePage;
 import com.bofa.payments.dto.MortgageEstimateRequest;
 import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.MortgageSummaryResponse;
 import com.bofa.payments.exception.PaymentValidationException;
 import org.springframework.stereotype.Component;
 
@@ -18,14 +21,87 @@ public class MortgageCalculator {
     private static final MathContext MC = new MathContext(20, RoundingMode.HALF_EVEN);
     private static final BigDecimal PMI_THRESHOLD = BigDecimal.valueOf(0.80);
     private static final BigDecimal PMI_RATE = BigDecimal.valueOf(0.005); // 0.5% annually
+    private static final int MAX_SCHEDULE_PAGE_SIZE = 120;
 
     public MortgageEstimateResponse estimate(MortgageEstimateRequest request) {
+        Terms terms = prepare(request);
+        AmortizationSchedule schedule = PrimitiveAmortization.schedule(terms);
+        if (schedule == null) {
+            return estimateWithBigDecimal(terms);
+        }
+        return new MortgageEstimateResponse(terms.monthlyPayment(), terms.pmiRequired(), schedule.size(), schedule);
+    }
+
+    // Reference implementation; PrimitiveAmortization must match it to the cent.
+    MortgageEstimateResponse estimateWithBigDecimal(Terms terms) {
+        List<AmortizationInstallment> schedule = new ArrayList<>();
+        int payoffMonth = amortize(terms, (month, principalComponent, interestComponent, balance, penalty) -> {
+            schedule.add(installment(month, principalComponent, interestComponent, balance, penalty));
+            return true;
+        });
+        return new MortgageEstimateResponse(terms.monthlyPayment(), terms.pmiRequired(), payoffMonth, schedule);
+    }
+
+    /**
+     * Same payment, PMI flag and payoff month as {@link #estimate}, plus schedule totals, without
+     * materializing any installments.
+     */
+    public MortgageSummaryResponse summarize(MortgageEstimateRequest request) {
+        return summarize(prepare(request));
+    }
+
+    MortgageSummaryResponse summarize(Terms terms) {
+        MortgageSummaryResponse summary = PrimitiveAmortization.summary(terms);
+        return summary != null ? summary : summarizeWithBigDecimal(terms);
+    }
+
+    MortgageSummaryResponse summarizeWithBigDecimal(Terms terms) {
+        Totals totals = new Totals();
+        int payoffMonth = amortize(terms, totals);
+        return new MortgageSummaryResponse(terms.monthlyPayment(), terms.pmiRequired(), payoffMonth,
+                totals.interest.setScale(2, RoundingMode.HALF_EVEN), totals.penalty.setScale(2, RoundingMode.HALF_EVEN));
+    }
+
+    /**
+     * Installments {@code fromMonth .. fromMonth + limit - 1} of the {@link #estimate} schedule. Months
+     * before the page are walked but not materialized, and the walk stops at the page end.
+     */
+    public AmortizationSchedulePage schedulePage(MortgageEstimateRequest request, int fromMonth, int limit) {
+        if (fromMonth < 1) {
+            throw new PaymentValidationException("From month must be at least 1");
+        }
+        if (limit < 1 || limit > MAX_SCHEDULE_PAGE_SIZE) {
+            throw new PaymentValidationException("Limit must be between 1 and " + MAX_SCHEDULE_PAGE_SIZE);
+        }
+        Terms terms = prepare(request);
+        List<AmortizationInstallment> installments = new ArrayList<>(limit);
+        int lastMonth = fromMonth + limit - 1;
+        boolean[] more = new boolean[1];
+        amortize(terms, (month, principalComponent, interestComponent, balance, penalty) -> {
+            if (month > lastMonth) {
+                more[0] = true;
+                return false;
+            }
+            if (month >= fromMonth) {
+                installments.add(installment(month, principalComponent, interestComponent, balance, penalty));
+            }
+            return true;
+        });
+        return new AmortizationSchedulePage(installments, more[0] ? lastMonth + 1 : null);
+    }
+
+    Terms prepare(MortgageEstimateRequest request) {
         validate(request);
+        boolean pmiRequired = isPmiRequired(request.getLoanAmount(), request.getPropertyValue());
+        return terms(request.getLoanAmount(), monthlyRate(request.getAnnualRate()), request.getTermMonths(),
+                pmiRequired, request.getOptionalMonthlyPrepayment());
+    }
 
-        BigDecimal baseLoan = request.getLoanAmount();
-        BigDecimal monthlyRate = request.getAnnualRate().divide(BigDecimal.valueOf(12 * 100), MC);
-        int term = request.getTermMonths();
+    BigDecimal monthlyRate(BigDecimal annualRate) {
+        return annualRate.divide(BigDecimal.valueOf(12 * 100), MC);
+    }
 
+    Terms terms(BigDecimal baseLoan, BigDecimal monthlyRate, int term, boolean pmiRequired, BigDecimal prepayment) {
         if (term <= 0) {
             throw new PaymentValidationException("Term must be positive");
         }
@@ -35,34 +111,32 @@ public class MortgageCalculator {
         BigDecimal monthlyPayment = numerator.divide(denominator, MC);
         monthlyPayment = monthlyPayment.setScale(2, RoundingMode.HALF_EVEN);
 
-        boolean pmiRequired = isPmiRequired(request);
         if (pmiRequired) {
             BigDecimal monthlyPmi = baseLoan.multiply(PMI_RATE, MC).divide(BigDecimal.valueOf(12), MC);
             monthlyPayment = monthlyPayment.add(monthlyPmi.setScale(2, RoundingMode.HALF_EVEN));
         }
 
-        List<AmortizationInstallment> schedule = buildSchedule(baseLoan, monthlyRate, monthlyPayment,
-                term, request.getOptionalMonthlyPrepayment());
-        int payoffMonth = schedule.isEmpty() ? 0 : schedule.get(schedule.size() - 1).getMonth();
-
-        return new MortgageEstimateResponse(monthlyPayment, pmiRequired, payoffMonth, schedule);
+        return new Terms(baseLoan, monthlyRate, monthlyPayment, term, prepayment, pmiRequired);
     }
 
-    private boolean isPmiRequired(MortgageEstimateRequest request) {
-        BigDecimal loanToValue = request.getLoanAmount().divide(request.getPropertyValue(), MC);
+    boolean isPmiRequired(BigDecimal loanAmount, BigDecimal propertyValue) {
+        BigDecimal loanToValue = loanAmount.divide(propertyValue, MC);
         return loanToValue.compareTo(PMI_THRESHOLD) > 0;
     }
 
-    private List<AmortizationInstallment> buildSchedule(BigDecimal principal,
-                                                         BigDecimal monthlyRate,
-                                                         BigDecimal monthlyPayment,
-                                                         int term,
-                                                         BigDecimal prepayment) {
-        List<AmortizationInstallment> schedule = new ArrayList<>();
-        BigDecimal balance = principal;
+    /**
+     * Walks the amortization schedule month by month, handing each month's unrounded components to the
+     * visitor until it returns false or the loan is paid off. Returns the last month visited.
+     */
+    private int amortize(Terms terms, InstallmentVisitor visitor) {
+        BigDecimal balance = terms.loan();
+        BigDecimal monthlyRate = terms.monthlyRate();
+        BigDecimal monthlyPayment = terms.monthlyPayment();
+        BigDecimal prepayment = terms.prepayment();
         BigDecimal penaltyRate = BigDecimal.valueOf(0.02);
+        int lastMonth = 0;
 
-        for (int month = 1; month <= term && balance.compareTo(BigDecimal.ZERO) > 0; month++) {
+        for (int month = 1; month <= terms.term() && balance.compareTo(BigDecimal.ZERO) > 0; month++) {
             BigDecimal interestComponent = balance.multiply(monthlyRate, MC);
             BigDecimal principalComponent = monthlyPayment.subtract(interestComponent, MC);
             BigDecimal extraPayment = prepayment.min(balance);
@@ -77,33 +151,86 @@ public class MortgageCalculator {
 
             balance = balance.subtract(totalPrincipalReduction, MC);
 
-            schedule.add(new AmortizationInstallment(
-                    month,
-                    principalComponent.setScale(2, RoundingMode.HALF_EVEN),
-                    interestComponent.setScale(2, RoundingMode.HALF_EVEN),
-                    balance.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_EVEN),
-                    penalty.compareTo(BigDecimal.ZERO) > 0
-            ));
+            if (!visitor.visit(month, principalComponent, interestComponent, balance, penalty)) {
+                break;
+            }
+            lastMonth = month;
 
             if (balance.compareTo(BigDecimal.ZERO) <= 0) {
                 break;
             }
         }
-        return schedule;
+        return lastMonth;
+    }
+
+    private static AmortizationInstallment installment(int month,
+                                                       BigDecimal principalComponent,
+                                                       BigDecimal interestComponent,
+                                                       BigDecimal balance,
+                                                       BigDecimal penalty) {
+        return new AmortizationInstallment(
+                month,
+                principalComponent.setScale(2, RoundingMode.HALF_EVEN),
+                interestComponent.setScale(2, RoundingMode.HALF_EVEN),
+                balance.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_EVEN),
+                penalty.compareTo(BigDecimal.ZERO) > 0
+        );
     }
 
     private void validate(MortgageEstimateRequest request) {
-        if (request.getLoanAmount() == null || request.getLoanAmount().compareTo(BigDecimal.valueOf(10000)) < 0) {
+        validateLoanAmount(request.getLoanAmount());
+        validateAnnualRate(request.getAnnualRate());
+        validateTermMonths(request.getTermMonths());
+        validatePropertyValue(request.getPropertyValue(), request.getLoanAmount());
+    }
+
+    void validateLoanAmount(BigDecimal loanAmount) {
+        if (loanAmount == null || loanAmount.compareTo(BigDecimal.valueOf(10000)) < 0) {
             throw new PaymentValidationException("Loan amount must be at least 10,000");
         }
-        if (request.getAnnualRate() == null || request.getAnnualRate().compareTo(BigDecimal.ZERO) <= 0) {
+    }
+
+    void validateAnnualRate(BigDecimal annualRate) {
+        if (annualRate == null || annualRate.compareTo(BigDecimal.ZERO) <= 0) {
             throw new PaymentValidationException("Annual rate must be positive");
         }
-        if (request.getTermMonths() < 60 || request.getTermMonths() > 480) {
+    }
+
+    void validateTermMonths(int termMonths) {
+        if (termMonths < 60 || termMonths > 480) {
             throw new PaymentValidationException("Term must be between 60 and 480 months");
         }
-        if (request.getPropertyValue() == null || request.getPropertyValue().compareTo(request.getLoanAmount()) < 0) {
+    }
+
+    void validatePropertyValue(BigDecimal propertyValue, BigDecimal loanAmount) {
+        if (propertyValue == null || propertyValue.compareTo(loanAmount) < 0) {
             throw new PaymentValidationException("Property value must exceed loan amount");
         }
     }
+
+    record Terms(BigDecimal loan, BigDecimal monthlyRate, BigDecimal monthlyPayment, int term,
+            BigDecimal prepayment, boolean pmiRequired) {
+
+        Terms withPrepayment(BigDecimal prepayment) {
+            return new Terms(loan, monthlyRate, monthlyPayment, term, prepayment, pmiRequired);
+        }
+    }
+
+    private interface InstallmentVisitor {
+        boolean visit(int month, BigDecimal principalComponent, BigDecimal interestComponent,
+                      BigDecimal balance, BigDecimal penalty);
+    }
+
+    private static final class Totals implements InstallmentVisitor {
+        private BigDecimal interest = BigDecimal.ZERO;
+        private BigDecimal penalty = BigDecimal.ZERO;
+
+        @Override
+        public boolean visit(int month, BigDecimal principalComponent, BigDecimal interestComponent,
+                             BigDecimal balance, BigDecimal penalty) {
+            this.interest = this.interest.add(interestComponent, MC);
+            this.penalty = this.penalty.add(penalty, MC);
+            return true;
+        }
+    }
 }
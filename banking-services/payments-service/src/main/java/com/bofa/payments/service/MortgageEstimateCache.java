@@ -0,0 +1,82 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.CacheStatsResponse;
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.util.WireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Serialized {@link MortgageCalculator#estimate} responses keyed by the wire format and the inputs the
+ * estimate depends on, with trailing zeros stripped so {@code 300000} and {@code 300000.00} share an
+ * entry. A hit skips both the amortization walk and encoding. Bounded by total response bytes and a
+ * time-to-live.
+ */
+@Component
+public class MortgageEstimateCache {
+
+    private final MortgageCalculator mortgageCalculator;
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Cache<EstimateKey, byte[]> responses;
+
+    public MortgageEstimateCache(MortgageCalculator mortgageCalculator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${payments.mortgage.estimate-cache.max-bytes:67108864}") long maxBytes,
+                                 @Value("${payments.mortgage.estimate-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.mortgageCalculator = mortgageCalculator;
+        for (WireFormat format : WireFormat.values()) {
+            mappers.put(format, format.mapperFrom(objectMapper));
+        }
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((EstimateKey key, byte[] json) -> json.length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public byte[] estimate(MortgageEstimateRequest request, WireFormat format) {
+        return responses.get(EstimateKey.of(request, format), key -> {
+            try {
+                return mappers.get(format).writeValueAsBytes(mortgageCalculator.estimate(request));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = responses.stats();
+        return new CacheStatsResponse(responses.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private record EstimateKey(WireFormat format,
+                               BigDecimal loanAmount,
+                               BigDecimal annualRate,
+                               int termMonths,
+                               BigDecimal propertyValue,
+                               BigDecimal prepayment) {
+
+        static EstimateKey of(MortgageEstimateRequest request, WireFormat format) {
+            return new EstimateKey(format, normalize(request.getLoanAmount()), normalize(request.getAnnualRate()),
+                    request.getTermMonths(), normalize(request.getPropertyValue()),
+                    normalize(request.getOptionalMonthlyPrepayment()));
+        }
+
+        private static BigDecimal normalize(BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
+    }
+}
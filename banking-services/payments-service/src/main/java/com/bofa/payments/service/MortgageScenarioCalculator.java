@@ -0,0 +1,97 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.MortgageScenarioRequest;
+import com.bofa.payments.dto.MortgageScenarioResponse;
+import com.bofa.payments.dto.MortgageScenarioRow;
+import com.bofa.payments.exception.PaymentValidationException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a rate x term x prepayment grid of mortgage summaries. The request is validated once, the
+ * PMI flag and each monthly rate are computed once, and each (rate, term) payment is shared by all of its
+ * prepayment variants. Cells run on a dedicated, bounded fork-join pool.
+ */
+@Component
+public class MortgageScenarioCalculator {
+
+    private static final int MAX_SCENARIOS = 2_000;
+
+    private final MortgageCalculator mortgageCalculator;
+    private final ForkJoinPool pool;
+
+    public MortgageScenarioCalculator(MortgageCalculator mortgageCalculator,
+                                      @Value("${payments.mortgage.scenarios.parallelism:0}") int parallelism) {
+        this.mortgageCalculator = mortgageCalculator;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("mortgage-scenario-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public MortgageScenarioResponse calculate(MortgageScenarioRequest request) {
+        validate(request);
+
+        BigDecimal loanAmount = request.getLoanAmount();
+        List<BigDecimal> rates = request.getAnnualRates();
+        List<Integer> terms = request.getTermMonths();
+        List<BigDecimal> prepayments = request.getOptionalMonthlyPrepayments();
+        boolean pmiRequired = mortgageCalculator.isPmiRequired(loanAmount, request.getPropertyValue());
+        BigDecimal[] monthlyRates = rates.stream().map(mortgageCalculator::monthlyRate).toArray(BigDecimal[]::new);
+
+        int termCount = terms.size();
+        int prepaymentCount = prepayments.size();
+        MortgageCalculator.Terms[] baseTerms = new MortgageCalculator.Terms[rates.size() * termCount];
+        MortgageScenarioRow[] rows = new MortgageScenarioRow[baseTerms.length * prepaymentCount];
+        pool.submit(() -> {
+            IntStream.range(0, baseTerms.length).parallel().forEach(cell -> baseTerms[cell] = mortgageCalculator.terms(
+                    loanAmount, monthlyRates[cell / termCount], terms.get(cell % termCount), pmiRequired, BigDecimal.ZERO));
+            IntStream.range(0, rows.length).parallel().forEach(row -> {
+                int cell = row / prepaymentCount;
+                BigDecimal prepayment = prepayments.get(row % prepaymentCount);
+                rows[row] = new MortgageScenarioRow(rates.get(cell / termCount), terms.get(cell % termCount), prepayment,
+                        mortgageCalculator.summarize(baseTerms[cell].withPrepayment(prepayment)));
+            });
+        }).join();
+        return new MortgageScenarioResponse(Arrays.asList(rows));
+    }
+
+    private void validate(MortgageScenarioRequest request) {
+        mortgageCalculator.validateLoanAmount(request.getLoanAmount());
+        mortgageCalculator.validatePropertyValue(request.getPropertyValue(), request.getLoanAmount());
+        if (request.getAnnualRates() == null || request.getAnnualRates().isEmpty()
+                || request.getTermMonths() == null || request.getTermMonths().isEmpty()
+                || request.getOptionalMonthlyPrepayments() == null || request.getOptionalMonthlyPrepayments().isEmpty()) {
+            throw new PaymentValidationException("Scenario grid needs at least one rate, term and prepayment");
+        }
+        long scenarios = (long) request.getAnnualRates().size() * request.getTermMonths().size()
+                * request.getOptionalMonthlyPrepayments().size();
+        if (scenarios > MAX_SCENARIOS) {
+            throw new PaymentValidationException("Scenario grid cannot contain more than " + MAX_SCENARIOS + " scenarios");
+        }
+        request.getAnnualRates().forEach(mortgageCalculator::validateAnnualRate);
+        for (Integer termMonths : request.getTermMonths()) {
+            mortgageCalculator.validateTermMonths(termMonths == null ? 0 : termMonths);
+        }
+        for (BigDecimal prepayment : request.getOptionalMonthlyPrepayments()) {
+            if (prepayment == null || prepayment.signum() < 0) {
+                throw new PaymentValidationException("Monthly prepayment cannot be negative");
+            }
+        }
+    }
+}
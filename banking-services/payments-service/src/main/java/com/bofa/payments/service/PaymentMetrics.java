@@ -0,0 +1,121 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.PaymentResponse;
+import com.bofa.payments.exception.PaymentConflictException;
+import com.bofa.payments.exception.PaymentNotFoundException;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for {@link PaymentService}: a timer per operation, execution outcomes, history result
+ * sizes, and gauges over the stored payments. All meters are registered up front so the hot paths only
+ * look up an array slot. Percentile histograms are switched on per meter name in application.properties.
+ */
+@Component
+public class PaymentMetrics {
+
+    static final String OPERATION_TIMER = "payments.operations";
+    static final String EXECUTION_COUNTER = "payments.executions";
+    static final String HISTORY_SIZE = "payments.history.size";
+
+    private static final String REJECTED = "REJECTED";
+    private static final String CONFLICT = "CONFLICT";
+    private static final String NOT_FOUND = "NOT_FOUND";
+    private static final String ERROR = "ERROR";
+
+    enum Operation {
+        SCHEDULE("schedule"),
+        EXECUTE("execute"),
+        HISTORY("history"),
+        HISTORY_PAGE("history-page"),
+        INTEREST("interest"),
+        MORTGAGE_ESTIMATE("mortgage-estimate");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Timer[] timers = new Timer[Operation.values().length];
+    private final Map<String, Counter> executionOutcomes = new HashMap<>();
+    private final DistributionSummary historySize;
+
+    public PaymentMetrics(MeterRegistry registry, PaymentRepository paymentRepository) {
+        this.registry = registry;
+        for (Operation operation : Operation.values()) {
+            timers[operation.ordinal()] = Timer.builder(OPERATION_TIMER)
+                    .description("PaymentService operation latency")
+                    .tag("operation", operation.tag)
+                    .register(registry);
+        }
+        for (PaymentStatus status : PaymentStatus.values()) {
+            registerOutcome(status.name());
+            Gauge.builder("payments.stored.by.status", paymentRepository, repository -> repository.countByStatus(status))
+                    .description("Stored payments in each status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+        for (String outcome : new String[] {REJECTED, CONFLICT, NOT_FOUND, ERROR}) {
+            registerOutcome(outcome);
+        }
+        Gauge.builder("payments.stored", paymentRepository, PaymentRepository::count)
+                .description("Payments held by the repository")
+                .register(registry);
+        historySize = DistributionSummary.builder(HISTORY_SIZE)
+                .description("Payments returned per history request")
+                .baseUnit("payments")
+                .register(registry);
+    }
+
+    <T> T record(Operation operation, Supplier<T> call) {
+        return timers[operation.ordinal()].record(call);
+    }
+
+    // Times the whole execution, retries included, and counts it by resulting status or by why it was refused.
+    PaymentResponse recordExecution(Supplier<PaymentResponse> execution) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = ERROR;
+        try {
+            PaymentResponse response = execution.get();
+            outcome = response.getStatus().name();
+            return response;
+        } catch (PaymentValidationException e) {
+            outcome = REJECTED;
+            throw e;
+        } catch (PaymentConflictException e) {
+            outcome = CONFLICT;
+            throw e;
+        } catch (PaymentNotFoundException e) {
+            outcome = NOT_FOUND;
+            throw e;
+        } finally {
+            sample.stop(timers[Operation.EXECUTE.ordinal()]);
+            executionOutcomes.get(outcome).increment();
+        }
+    }
+
+    void recordHistorySize(int payments) {
+        historySize.record(payments);
+    }
+
+    private void registerOutcome(String outcome) {
+        executionOutcomes.put(outcome, Counter.builder(EXECUTION_COUNTER)
+                .description("Payment executions by outcome")
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+}
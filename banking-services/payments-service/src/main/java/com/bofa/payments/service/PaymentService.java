@@ -1,51 +1,184 @@
 package com.bofa.payments.service;
 
+import com.bofa.payments.dto.AccountSummaryResponse;
+import com.bofa.payments.dto.AmortizationSchedulePage;
+import com.bofa.payments.dto.BatchInterestResponse;
+import com.bofa.payments.dto.BatchItemResult;
+import com.bofa.payments.dto.BatchScheduleResponse;
+import com.bofa.payments.dto.CacheStatsResponse;
 import com.bofa.payments.dto.InterestCalculationRequest;
 import com.bofa.payments.dto.InterestCalculationResponse;
 import com.bofa.payments.dto.MortgageEstimateRequest;
 import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.MortgageScenarioRequest;
+import com.bofa.payments.dto.MortgageScenarioResponse;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+import com.bofa.payments.dto.PaymentEvent;
 import com.bofa.payments.dto.PaymentExecutionRequest;
+import com.bofa.payments.dto.PaymentHistoryPage;
 import com.bofa.payments.dto.PaymentResponse;
 import com.bofa.payments.dto.PaymentScheduleRequest;
+import com.bofa.payments.exception.PaymentConflictException;
+import com.bofa.payments.exception.PaymentNotFoundException;
 import com.bofa.payments.exception.PaymentValidationException;
 import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentKey;
 import com.bofa.payments.model.PaymentStatus;
 import com.bofa.payments.repository.PaymentRepository;
+import com.bofa.payments.service.PaymentMetrics.Operation;
+import com.bofa.payments.util.PaymentCursor;
 import com.bofa.payments.util.PaymentMapper;
+import com.bofa.payments.util.WireFormat;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class PaymentService {
 
+    public static final int MAX_BATCH_SIZE = 50_000;
+    private static final int MAX_EXECUTE_ATTEMPTS = 5;
+    private static final int MAX_HISTORY_PAGE_SIZE = 1_000;
+    public static final int MAX_INTEREST_BATCH_SIZE = 1_000_000;
+    private static final BigDecimal MIN_INTEREST_PRINCIPAL = new BigDecimal("1.00");
+    private static final BigDecimal MIN_INTEREST_RATE = new BigDecimal("0.01");
+    private static final int EVENT_BATCH_SIZE = 1_024;
+    private static final long MAX_EVENT_WAIT_MILLIS = 60_000;
+    private static final long MAX_EVENT_TAIL_MILLIS = 240_000; // below spring.mvc.async.request-timeout
+
     private final PaymentRepository paymentRepository;
     private final InterestCalculator interestCalculator;
     private final MortgageCalculator mortgageCalculator;
+    private final MortgageScenarioCalculator mortgageScenarioCalculator;
+    private final MortgageEstimateCache mortgageEstimateCache;
+    private final PaymentMetrics metrics;
+    private final IdempotencyStore idempotencyStore;
+    private final RecurringPaymentService recurringPayments;
 
     public PaymentService(PaymentRepository paymentRepository,
                           InterestCalculator interestCalculator,
-                          MortgageCalculator mortgageCalculator) {
+                          MortgageCalculator mortgageCalculator,
+                          MortgageScenarioCalculator mortgageScenarioCalculator,
+                          MortgageEstimateCache mortgageEstimateCache,
+                          PaymentMetrics metrics,
+                          IdempotencyStore idempotencyStore,
+                          RecurringPaymentService recurringPayments) {
         this.paymentRepository = paymentRepository;
         this.interestCalculator = interestCalculator;
         this.mortgageCalculator = mortgageCalculator;
+        this.mortgageScenarioCalculator = mortgageScenarioCalculator;
+        this.mortgageEstimateCache = mortgageEstimateCache;
+        this.metrics = metrics;
+        this.idempotencyStore = idempotencyStore;
+        this.recurringPayments = recurringPayments;
     }
 
     public PaymentResponse schedulePayment(PaymentScheduleRequest request) {
-        validateScheduleRequest(request);
-        Payment payment = paymentRepository.createScheduled(
-                request.getAccountId(),
-                request.getPrincipal(),
-                request.getInterest(),
-                request.getScheduledDate());
-        return PaymentMapper.toResponse(payment);
+        return metrics.record(Operation.SCHEDULE, () -> {
+            validateScheduleRequest(request);
+            Payment payment = paymentRepository.callOnShard(request.getAccountId(), () -> paymentRepository.createScheduled(
+                    request.getAccountId(),
+                    request.getPrincipal(),
+                    request.getInterest(),
+                    request.getScheduledDate()));
+            return PaymentMapper.toResponse(payment);
+        });
+    }
+
+    // A null key schedules unconditionally; otherwise retries with the same key get the first response.
+    public PaymentResponse schedulePayment(PaymentScheduleRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return schedulePayment(request);
+        }
+        return idempotencyStore.execute("schedule", idempotencyKey, fingerprint(request), () -> schedulePayment(request));
+    }
+
+    public BatchScheduleResponse scheduleBatch(List<PaymentScheduleRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new PaymentValidationException("Batch must contain at least one payment");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new PaymentValidationException("Batch cannot contain more than " + MAX_BATCH_SIZE + " payments");
+        }
+
+        LocalDate earliestDate = LocalDate.now().plusDays(1);
+        String[] errors = new String[requests.size()];
+        List<Payment> drafts = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            PaymentScheduleRequest request = requests.get(i);
+            try {
+                validateBatchItem(request, earliestDate);
+                drafts.add(new Payment(null, request.getAccountId(), request.getPrincipal(), request.getInterest(),
+                        request.getScheduledDate(), null, PaymentStatus.SCHEDULED));
+            } catch (PaymentValidationException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        // Each shard assigns ids to its drafts in place, so drafts stays in request order.
+        paymentRepository.forEachShard(drafts, Payment::getAccountId, paymentRepository::createScheduledBatch);
+        List<BatchItemResult<PaymentResponse>> results = new ArrayList<>(requests.size());
+        int next = 0;
+        for (int i = 0; i < errors.length; i++) {
+            results.add(errors[i] == null
+                    ? BatchItemResult.success(i, PaymentMapper.toResponse(drafts.get(next++)))
+                    : BatchItemResult.failure(i, errors[i]));
+        }
+        return new BatchScheduleResponse(drafts.size(), requests.size() - drafts.size(), results);
     }
 
     public PaymentResponse executePayment(String paymentId, PaymentExecutionRequest request) {
-        Payment payment = paymentRepository.find(paymentId);
+        return metrics.recordExecution(() -> execute(paymentId, request));
+    }
+
+    public PaymentResponse executePayment(String paymentId, PaymentExecutionRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return executePayment(paymentId, request);
+        }
+        return idempotencyStore.execute("execute:" + paymentId, idempotencyKey, fingerprint(request),
+                () -> executePayment(paymentId, request));
+    }
+
+    // Runs on the shard of the payment's account, so executes of one account never race each other; the
+    // version check still guards writes made off the shard writers, such as update.
+    private PaymentResponse execute(String paymentId, PaymentExecutionRequest request) {
+        String accountId = findOrMaterialize(paymentId).getAccountId();
+        return paymentRepository.callOnShard(accountId, () -> executeOnShard(paymentId, request));
+    }
+
+    private PaymentResponse executeOnShard(String paymentId, PaymentExecutionRequest request) {
+        for (int attempt = 0; attempt < MAX_EXECUTE_ATTEMPTS; attempt++) {
+            Payment snapshot = findOrMaterialize(paymentId);
+            long expectedVersion = snapshot.getVersion();
+            Payment executed = applyExecution(snapshot, request);
+            if (paymentRepository.compareAndSet(executed, expectedVersion)) {
+                return PaymentMapper.toResponse(executed);
+            }
+        }
+        throw new PaymentConflictException(paymentId);
+    }
+
+    // A virtual recurring occurrence is stored on first use, so it can be executed ahead of the horizon.
+    private Payment findOrMaterialize(String paymentId) {
+        try {
+            return paymentRepository.find(paymentId);
+        } catch (PaymentNotFoundException e) {
+            if (!recurringPayments.materializeOccurrence(paymentId)) {
+                throw e;
+            }
+            return paymentRepository.find(paymentId);
+        }
+    }
+
+    private Payment applyExecution(Payment payment, PaymentExecutionRequest request) {
         if (payment.getStatus() != PaymentStatus.SCHEDULED) {
             throw new PaymentValidationException("Only scheduled payments can be executed");
         }
@@ -78,35 +211,230 @@ public class PaymentService {
                 payment.setInterest(payment.getInterest().add(accrued));
             }
         }
-
-        paymentRepository.update(payment);
-        return PaymentMapper.toResponse(payment);
+        return payment;
     }
 
     public List<PaymentResponse> getPaymentHistory(String accountId) {
-        return paymentRepository.findByAccount(accountId)
-                .stream()
-                .map(PaymentMapper::toResponse)
+        return metrics.record(Operation.HISTORY, () -> {
+            List<PaymentResponse> history = recurringPayments
+                    .withAccountOccurrences(accountId, null, () -> paymentRepository.findByAccount(accountId).stream())
+                    .map(PaymentMapper::toResponse)
+                    .toList();
+            metrics.recordHistorySize(history.size());
+            return history;
+        });
+    }
+
+    // Changes whenever the account's history may have changed, including across restarts.
+    public String getPaymentHistoryVersion(String accountId) {
+        return paymentRepository.instanceId() + "-" + paymentRepository.accountVersion(accountId)
+                + "." + recurringPayments.getAccountVersion(accountId);
+    }
+
+    public Stream<PaymentResponse> streamDuePayments(LocalDate from, LocalDate to, PaymentStatus status) {
+        if (from == null || to == null) {
+            throw new PaymentValidationException("Due date range needs both from and to");
+        }
+        if (from.isAfter(to)) {
+            throw new PaymentValidationException("Due date range cannot end before it starts");
+        }
+        return recurringPayments
+                .withDueOccurrences(from, to, status, () -> paymentRepository.streamByScheduledDate(from, to, status))
+                .map(PaymentMapper::toResponse);
+    }
+
+    public AccountSummaryResponse getAccountSummary(String accountId) {
+        return PaymentMapper.toSummaryResponse(paymentRepository.summarizeAccount(accountId));
+    }
+
+    public PaymentHistoryPage getPaymentHistoryPage(String accountId, String cursor, int limit) {
+        return metrics.record(Operation.HISTORY_PAGE, () -> historyPage(accountId, cursor, limit));
+    }
+
+    private PaymentHistoryPage historyPage(String accountId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new PaymentValidationException("Page limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        PaymentKey after = cursor == null || cursor.isEmpty() ? null : PaymentCursor.decode(cursor);
+        List<Payment> payments = recurringPayments
+                .withAccountOccurrences(accountId, after, () -> paymentRepository.findByAccount(accountId, after, limit + 1).stream())
+                .limit(limit + 1)
                 .toList();
+        boolean hasMore = payments.size() > limit;
+        List<Payment> page = hasMore ? payments.subList(0, limit) : payments;
+        String nextCursor = hasMore ? PaymentCursor.encode(PaymentKey.of(page.get(limit - 1))) : null;
+        metrics.recordHistorySize(page.size());
+        return new PaymentHistoryPage(page.stream().map(PaymentMapper::toResponse).toList(), nextCursor);
+    }
+
+    public Stream<PaymentResponse> streamPaymentHistory(String accountId) {
+        return recurringPayments
+                .withAccountOccurrences(accountId, null, () -> paymentRepository.streamByAccount(accountId))
+                .map(PaymentMapper::toResponse);
+    }
+
+    /**
+     * Tails payment change events from {@code fromSequence}, handing them to the sink in batches. Returns once
+     * no event has arrived for {@code waitMillis}, or after a few minutes in any case; the caller resumes
+     * from the last sequence it saw plus one. A gap in the sequence numbers means that many events were
+     * overwritten before they could be read.
+     */
+    public void tailPaymentEvents(long fromSequence, long waitMillis, Consumer<List<PaymentEvent>> sink) {
+        if (fromSequence < 0) {
+            throw new PaymentValidationException("fromSequence cannot be negative");
+        }
+        if (waitMillis < 0 || waitMillis > MAX_EVENT_WAIT_MILLIS) {
+            throw new PaymentValidationException("waitMillis must be between 0 and " + MAX_EVENT_WAIT_MILLIS);
+        }
+        long started = System.nanoTime();
+        long tailEnd = started + TimeUnit.MILLISECONDS.toNanos(MAX_EVENT_TAIL_MILLIS);
+        long idleSince = started;
+        long next = fromSequence;
+        while (System.nanoTime() - tailEnd < 0) {
+            List<PaymentEvent> batch = new ArrayList<>();
+            next = paymentRepository.readEvents(next, EVENT_BATCH_SIZE,
+                    (sequence, previousStatus, payment) -> batch.add(PaymentMapper.toEvent(sequence, previousStatus, payment)));
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+                idleSince = System.nanoTime();
+                continue;
+            }
+            long now = System.nanoTime();
+            long idleLeft = idleSince + TimeUnit.MILLISECONDS.toNanos(waitMillis) - now;
+            if (idleLeft <= 0) {
+                return;
+            }
+            try {
+                paymentRepository.awaitEvents(next, Math.min(idleLeft, tailEnd - now));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
     }
 
     public InterestCalculationResponse calculateInterest(InterestCalculationRequest request) {
-        BigDecimal accrued = interestCalculator.calculateDailyCompound(
-                request.getPrincipal(), request.getAnnualRate(), request.getDays());
-        BigDecimal total = request.getPrincipal().add(accrued);
-        return new InterestCalculationResponse(accrued, total);
+        return metrics.record(Operation.INTEREST, () -> {
+            BigDecimal accrued = interestCalculator.calculateDailyCompound(
+                    request.getPrincipal(), request.getAnnualRate(), request.getDays());
+            BigDecimal total = request.getPrincipal().add(accrued);
+            return new InterestCalculationResponse(accrued, total);
+        });
+    }
+
+    public BatchInterestResponse calculateInterestBatch(List<InterestCalculationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new PaymentValidationException("Batch must contain at least one calculation");
+        }
+        if (requests.size() > MAX_INTEREST_BATCH_SIZE) {
+            throw new PaymentValidationException(
+                    "Batch cannot contain more than " + MAX_INTEREST_BATCH_SIZE + " calculations");
+        }
+
+        String[] errors = new String[requests.size()];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = interestRequestError(requests.get(i));
+        }
+        BigDecimal[] accrued = interestCalculator.calculateDailyCompound(requests, errors);
+
+        List<BatchItemResult<InterestCalculationResponse>> results = new ArrayList<>(requests.size());
+        int rejected = 0;
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                rejected++;
+                results.add(BatchItemResult.failure(i, errors[i]));
+            } else {
+                BigDecimal total = requests.get(i).getPrincipal().add(accrued[i]);
+                results.add(BatchItemResult.success(i, new InterestCalculationResponse(accrued[i], total)));
+            }
+        }
+        return new BatchInterestResponse(requests.size() - rejected, rejected, results);
+    }
+
+    public CacheStatsResponse getInterestFactorCacheStats() {
+        return interestCalculator.factorCacheStats();
     }
 
     public MortgageEstimateResponse estimateMortgage(MortgageEstimateRequest request) {
-        return mortgageCalculator.estimate(request);
+        return metrics.record(Operation.MORTGAGE_ESTIMATE, () -> mortgageCalculator.estimate(request));
+    }
+
+    public byte[] estimateMortgageEncoded(MortgageEstimateRequest request, WireFormat format) {
+        return metrics.record(Operation.MORTGAGE_ESTIMATE, () -> mortgageEstimateCache.estimate(request, format));
+    }
+
+    public CacheStatsResponse getMortgageEstimateCacheStats() {
+        return mortgageEstimateCache.stats();
+    }
+
+    public MortgageSummaryResponse summarizeMortgage(MortgageEstimateRequest request) {
+        return mortgageCalculator.summarize(request);
+    }
+
+    public MortgageScenarioResponse calculateMortgageScenarios(MortgageScenarioRequest request) {
+        return mortgageScenarioCalculator.calculate(request);
+    }
+
+    public AmortizationSchedulePage getMortgageSchedulePage(MortgageEstimateRequest request, int fromMonth, int limit) {
+        return mortgageCalculator.schedulePage(request, fromMonth, limit);
+    }
+
+    // Mirrors the bean validation constraints on InterestCalculationRequest, which are not applied to list elements.
+    private String interestRequestError(InterestCalculationRequest request) {
+        if (request == null || request.getPrincipal() == null || request.getPrincipal().compareTo(MIN_INTEREST_PRINCIPAL) < 0) {
+            return "Principal must be at least " + MIN_INTEREST_PRINCIPAL;
+        }
+        if (request.getAnnualRate() == null || request.getAnnualRate().compareTo(MIN_INTEREST_RATE) < 0) {
+            return "Annual rate must be at least " + MIN_INTEREST_RATE;
+        }
+        if (request.getDays() < 1) {
+            return "Days must be at least 1";
+        }
+        return null;
+    }
+
+    // Amounts compare by value, so 100.0 and 100.00 are the same request.
+    private static List<Object> fingerprint(PaymentScheduleRequest request) {
+        return request == null ? List.of() : Arrays.asList(request.getAccountId(), normalize(request.getPrincipal()),
+                normalize(request.getInterest()), request.getScheduledDate());
+    }
+
+    private static List<Object> fingerprint(PaymentExecutionRequest request) {
+        return request == null ? List.of() : Arrays.asList(request.getExecutionDate(), request.isPartialPayment(),
+                request.isWaiveInterest(), request.getFailureReason());
+    }
+
+    private static BigDecimal normalize(BigDecimal amount) {
+        return amount == null ? null : amount.stripTrailingZeros();
     }
 
     private void validateScheduleRequest(PaymentScheduleRequest request) {
+        validateScheduleRequest(request, LocalDate.now().plusDays(1));
+    }
+
+    private void validateScheduleRequest(PaymentScheduleRequest request, LocalDate earliestDate) {
         if (request.getPrincipal() == null || request.getPrincipal().compareTo(BigDecimal.valueOf(100)) < 0) {
             throw new PaymentValidationException("Principal must be at least 100");
         }
-        if (request.getScheduledDate().isBefore(LocalDate.now().plusDays(1))) {
+        if (request.getScheduledDate().isBefore(earliestDate)) {
             throw new PaymentValidationException("Scheduled date must be at least 1 day in the future");
         }
     }
+
+    // Batch items skip the controller's bean validation, so the fields it would reject are checked first.
+    private void validateBatchItem(PaymentScheduleRequest request, LocalDate earliestDate) {
+        if (request == null || request.getAccountId() == null || request.getAccountId().isBlank()) {
+            throw new PaymentValidationException("Account id is required");
+        }
+        if (request.getInterest() == null) {
+            throw new PaymentValidationException("Interest is required");
+        }
+        if (request.getInterest().signum() < 0) {
+            throw new PaymentValidationException("Interest cannot be negative");
+        }
+        if (request.getScheduledDate() == null) {
+            throw new PaymentValidationException("Scheduled date is required");
+        }
+        validateScheduleRequest(request, earliestDate);
+    }
 }
@@ -0,0 +1,383 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.AmortizationSchedule;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Allocation-light replay of {@link MortgageCalculator}'s {@code BigDecimal} amortization walk. Every
+ * multiply, add and subtract is rounded to 20 significant digits with HALF_EVEN, exactly as
+ * {@code MathContext(20)} rounds the exact result, so rows and totals come out cent-identical. Values
+ * are held as sign, scale and three base-10^9 limbs; exact intermediates use nine limbs.
+ *
+ * <p>Inputs with more than 27 digits, scale gaps too wide to align or amounts beyond a {@code long} of
+ * cents make the walk give up and return {@code null}; the caller then uses the {@code BigDecimal} walk.
+ */
+final class PrimitiveAmortization {
+
+    private static final int PRECISION = 20;
+    private static final int PENALTY_MONTHS = 24;
+    private static final long LIMB = 1_000_000_000L;
+    private static final int LIMBS = 3;
+    private static final int WIDE_LIMBS = 9;
+    private static final int MAX_DIGITS = LIMBS * 9;
+    private static final int MAX_SHIFT = 50; // 27 + 50 digits, plus an add carry, stays within nine limbs
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long[] wide = new long[WIDE_LIMBS];
+    private final long[] other = new long[WIDE_LIMBS];
+    private final long[] kept = new long[LIMBS];
+    private final Num balance = new Num();
+    private final Num rate = new Num();
+    private final Num payment = new Num();
+    private final Num prepayment = new Num();
+    private final Num penaltyRate = new Num();
+    private final Num interest = new Num();
+    private final Num principal = new Num();
+    private final Num penalty = new Num();
+    private final Num reduction = new Num();
+    private final Num totalInterest = new Num();
+    private final Num totalPenalty = new Num();
+    private boolean overflow;
+
+    private PrimitiveAmortization() {}
+
+    static AmortizationSchedule schedule(MortgageCalculator.Terms terms) {
+        AmortizationSchedule schedule = new AmortizationSchedule(terms.term());
+        return new PrimitiveAmortization().walk(terms, schedule) < 0 ? null : schedule;
+    }
+
+    static MortgageSummaryResponse summary(MortgageCalculator.Terms terms) {
+        PrimitiveAmortization walk = new PrimitiveAmortization();
+        int payoffMonth = walk.walk(terms, null);
+        if (payoffMonth < 0) {
+            return null;
+        }
+        long interestCents = walk.cents(walk.totalInterest);
+        long penaltyCents = walk.cents(walk.totalPenalty);
+        if (walk.overflow) {
+            return null;
+        }
+        return new MortgageSummaryResponse(terms.monthlyPayment(), terms.pmiRequired(), payoffMonth,
+                BigDecimal.valueOf(interestCents, 2), BigDecimal.valueOf(penaltyCents, 2));
+    }
+
+    /**
+     * Mirrors {@code MortgageCalculator.amortize}. Appends rows to {@code schedule} when given, otherwise
+     * accumulates totals. Returns the payoff month, or -1 when the inputs are out of range.
+     */
+    private int walk(MortgageCalculator.Terms terms, AmortizationSchedule schedule) {
+        if (!load(terms.loan(), balance) || !load(terms.monthlyRate(), rate) || !load(terms.monthlyPayment(), payment)
+                || !load(terms.prepayment(), prepayment)) {
+            return -1;
+        }
+        set(penaltyRate, 2, 2); // 0.02
+        set(totalInterest, 0, 0);
+        set(totalPenalty, 0, 0);
+        boolean hasPrepayment = signum(prepayment) > 0;
+        int lastMonth = 0;
+
+        for (int month = 1; month <= terms.term() && signum(balance) > 0; month++) {
+            multiply(balance, rate, interest);
+            add(payment, interest, true, principal);
+            Num extraPayment = compare(prepayment, balance) <= 0 ? prepayment : balance;
+            boolean penaltyApplied = false;
+            if (hasPrepayment && month <= PENALTY_MONTHS) {
+                multiply(extraPayment, penaltyRate, penalty);
+                penaltyApplied = signum(penalty) > 0;
+            }
+            add(principal, extraPayment, false, reduction);
+            if (compare(reduction, balance) > 0) {
+                copy(balance, reduction);
+            }
+            add(balance, reduction, true, balance);
+
+            if (schedule != null) {
+                long balanceCents = signum(balance) < 0 ? 0 : cents(balance);
+                schedule.append(cents(principal), cents(interest), balanceCents, penaltyApplied);
+            } else {
+                add(totalInterest, interest, false, totalInterest);
+                if (penaltyApplied) {
+                    add(totalPenalty, penalty, false, totalPenalty);
+                }
+            }
+            if (overflow) {
+                return -1;
+            }
+            lastMonth = month;
+
+            if (signum(balance) <= 0) {
+                break;
+            }
+        }
+        return lastMonth;
+    }
+
+    private boolean load(BigDecimal value, Num out) {
+        if (value.precision() > MAX_DIGITS) {
+            return false;
+        }
+        BigInteger unscaled = value.unscaledValue().abs();
+        out.negative = value.signum() < 0;
+        out.scale = value.scale();
+        if (unscaled.bitLength() < 63) {
+            long magnitude = unscaled.longValue();
+            out.limbs[0] = magnitude % LIMB;
+            out.limbs[1] = magnitude / LIMB % LIMB;
+            out.limbs[2] = magnitude / LIMB / LIMB;
+        } else {
+            BigInteger limb = BigInteger.valueOf(LIMB);
+            for (int i = 0; i < LIMBS; i++) {
+                BigInteger[] split = unscaled.divideAndRemainder(limb);
+                out.limbs[i] = split[1].longValue();
+                unscaled = split[0];
+            }
+        }
+        return true;
+    }
+
+    private void multiply(Num a, Num b, Num out) {
+        clear(wide);
+        for (int i = 0; i < LIMBS; i++) {
+            if (a.limbs[i] == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int j = 0; j < LIMBS; j++) {
+                long t = wide[i + j] + a.limbs[i] * b.limbs[j] + carry;
+                wide[i + j] = t % LIMB;
+                carry = t / LIMB;
+            }
+            wide[i + LIMBS] += carry;
+        }
+        long scale = (long) a.scale + b.scale;
+        if (scale != (int) scale) {
+            overflow = true;
+            return;
+        }
+        roundToPrecision(wide, (int) scale, a.negative != b.negative, out);
+    }
+
+    // out = a + b, or a - b when subtract is set, rounded to PRECISION digits. out may alias a or b.
+    private void add(Num a, Num b, boolean subtract, Num out) {
+        int scale = Math.max(a.scale, b.scale);
+        if (!align(a, scale, wide) || !align(b, scale, other)) {
+            overflow = true;
+            return;
+        }
+        boolean aNegative = a.negative && !isZero(a);
+        boolean bNegative = (b.negative != subtract) && !isZero(b);
+        boolean negative;
+        if (aNegative == bNegative) {
+            addMagnitudes(wide, other);
+            negative = aNegative;
+        } else if (compareMagnitudes(wide, other) >= 0) {
+            subtractMagnitudes(wide, other);
+            negative = aNegative;
+        } else {
+            subtractMagnitudes(other, wide);
+            System.arraycopy(other, 0, wide, 0, WIDE_LIMBS);
+            negative = bNegative;
+        }
+        roundToPrecision(wide, scale, negative, out);
+    }
+
+    private int compare(Num a, Num b) {
+        int sa = signum(a);
+        int sb = signum(b);
+        if (sa != sb) {
+            return Integer.compare(sa, sb);
+        }
+        if (sa == 0) {
+            return 0;
+        }
+        int scale = Math.max(a.scale, b.scale);
+        if (!align(a, scale, wide) || !align(b, scale, other)) {
+            overflow = true;
+            return 0;
+        }
+        int magnitude = compareMagnitudes(wide, other);
+        return sa < 0 ? -magnitude : magnitude;
+    }
+
+    // HALF_EVEN setScale(2) as a long of cents.
+    private long cents(Num value) {
+        if (value.scale <= 2) {
+            int widen = 2 - value.scale;
+            if (digits(value.limbs, LIMBS) + widen > 18) {
+                overflow = true;
+                return 0;
+            }
+            long unscaled = value.limbs[2] * LIMB * LIMB + value.limbs[1] * LIMB + value.limbs[0];
+            long cents = unscaled * POWERS_OF_TEN[widen];
+            return value.negative ? -cents : cents;
+        }
+        clear(other);
+        System.arraycopy(value.limbs, 0, other, 0, LIMBS);
+        long drop = (long) value.scale - 2;
+        if (drop > digits(other, WIDE_LIMBS)) {
+            return 0; // below a tenth of a cent
+        }
+        shiftRightRounded(other, (int) drop, kept);
+        if (digits(kept, LIMBS) > 18) {
+            overflow = true;
+            return 0;
+        }
+        long cents = kept[2] * LIMB * LIMB + kept[1] * LIMB + kept[0];
+        return value.negative ? -cents : cents;
+    }
+
+    private void roundToPrecision(long[] exact, int scale, boolean negative, Num out) {
+        int digits = digits(exact, WIDE_LIMBS);
+        int drop = digits - PRECISION;
+        if (drop <= 0) {
+            System.arraycopy(exact, 0, out.limbs, 0, LIMBS);
+            out.scale = scale;
+        } else {
+            shiftRightRounded(exact, drop, out.limbs);
+            out.scale = scale - drop;
+        }
+        out.negative = negative;
+    }
+
+    // out = exact / 10^drop rounded HALF_EVEN; the quotient must fit in LIMBS limbs. Clobbers exact.
+    private static void shiftRightRounded(long[] exact, int drop, long[] out) {
+        int top = WIDE_LIMBS - 1;
+        while (top > 0 && exact[top] == 0) {
+            top--;
+        }
+        int count = drop - 1; // keep one guard digit
+        int wholeLimbs = count / 9;
+        long divisor = POWERS_OF_TEN[count % 9] * 10;
+        boolean sticky = false;
+        for (int i = 0; i < wholeLimbs; i++) {
+            sticky |= exact[i] != 0;
+        }
+        // Divide by 10^(count % 9 + 1) in one pass; the top digit of the remainder is the guard digit.
+        long remainder = 0;
+        for (int i = top; i >= wholeLimbs; i--) {
+            long current = remainder * LIMB + exact[i];
+            exact[i] = current / divisor;
+            remainder = current % divisor;
+        }
+        long guardUnit = divisor / 10;
+        long guard = remainder / guardUnit;
+        sticky |= remainder % guardUnit != 0;
+        for (int i = 0; i < LIMBS; i++) {
+            out[i] = wholeLimbs + i <= top ? exact[wholeLimbs + i] : 0;
+        }
+        if (guard > 5 || (guard == 5 && (sticky || (out[0] & 1) == 1))) {
+            for (int i = 0; i < LIMBS; i++) {
+                if (++out[i] < LIMB) {
+                    break;
+                }
+                out[i] = 0;
+            }
+        }
+    }
+
+    // Writes a's magnitude times 10^(scale - a.scale) into w.
+    private static boolean align(Num a, int scale, long[] w) {
+        clear(w);
+        if (isZero(a)) {
+            return true;
+        }
+        int shift = scale - a.scale;
+        if (shift > MAX_SHIFT) {
+            return false;
+        }
+        int wholeLimbs = shift / 9;
+        long factor = POWERS_OF_TEN[shift % 9];
+        long carry = 0;
+        for (int i = 0; i < LIMBS; i++) {
+            long t = a.limbs[i] * factor + carry;
+            w[i + wholeLimbs] = t % LIMB;
+            carry = t / LIMB;
+        }
+        w[LIMBS + wholeLimbs] = carry;
+        return true;
+    }
+
+    private static void addMagnitudes(long[] into, long[] addend) {
+        long carry = 0;
+        for (int i = 0; i < WIDE_LIMBS; i++) {
+            long t = into[i] + addend[i] + carry;
+            into[i] = t % LIMB;
+            carry = t / LIMB;
+        }
+    }
+
+    // into -= subtrahend; requires into >= subtrahend.
+    private static void subtractMagnitudes(long[] into, long[] subtrahend) {
+        long borrow = 0;
+        for (int i = 0; i < WIDE_LIMBS; i++) {
+            long t = into[i] - subtrahend[i] - borrow;
+            borrow = t < 0 ? 1 : 0;
+            into[i] = t < 0 ? t + LIMB : t;
+        }
+    }
+
+    private static int compareMagnitudes(long[] a, long[] b) {
+        for (int i = WIDE_LIMBS - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Long.compare(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    private static int digits(long[] limbs, int length) {
+        int top = length - 1;
+        while (top > 0 && limbs[top] == 0) {
+            top--;
+        }
+        int digits = 1;
+        while (digits < 10 && limbs[top] >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return top * 9 + digits;
+    }
+
+    private static int signum(Num value) {
+        return isZero(value) ? 0 : value.negative ? -1 : 1;
+    }
+
+    private static boolean isZero(Num value) {
+        return value.limbs[0] == 0 && value.limbs[1] == 0 && value.limbs[2] == 0;
+    }
+
+    private static void set(Num out, long unscaled, int scale) {
+        out.limbs[0] = unscaled;
+        out.limbs[1] = 0;
+        out.limbs[2] = 0;
+        out.scale = scale;
+        out.negative = false;
+    }
+
+    private static void copy(Num from, Num to) {
+        System.arraycopy(from.limbs, 0, to.limbs, 0, LIMBS);
+        to.scale = from.scale;
+        to.negative = from.negative;
+    }
+
+    private static void clear(long[] limbs) {
+        Arrays.fill(limbs, 0);
+    }
+
+    // Decimal (negative ? -1 : 1) * limbs * 10^-scale with limbs in base 10^9, least significant first.
+    private static final class Num {
+        final long[] limbs = new long[LIMBS];
+        int scale;
+        boolean negative;
+    }
+}
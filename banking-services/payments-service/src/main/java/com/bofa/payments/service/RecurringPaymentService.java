@@ -0,0 +1,273 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.RecurringScheduleRequest;
+import com.bofa.payments.dto.RecurringScheduleResponse;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.exception.RecurringScheduleNotFoundException;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentKey;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
+import com.bofa.payments.repository.PaymentRepository;
+import com.bofa.payments.repository.RecurringScheduleRepository;
+import com.bofa.payments.repository.RecurringScheduleRepository.Entry;
+import com.bofa.payments.util.MergingIterator;
+import com.bofa.payments.util.PaymentMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Standing orders stored as one {@link RecurringSchedule} instead of a payment per occurrence. Occurrences
+ * become stored payments only once they are within {@code payments.recurring.horizon-days} of today, or
+ * when one is executed early. History and due-date reads merge the remaining, virtual occurrences into
+ * the stored payments in key order, so callers cannot tell the two apart.
+ */
+@Service
+public class RecurringPaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringPaymentService.class);
+    private static final int MAX_SCHEDULE_YEARS = 50;
+    private static final Duration MAX_INTERVAL_SPAN = ChronoUnit.YEARS.getDuration().multipliedBy(MAX_SCHEDULE_YEARS);
+    private static final Comparator<Payment> BY_KEY = Comparator.comparing(PaymentKey::of);
+
+    private final PaymentRepository paymentRepository;
+    private final RecurringScheduleRepository scheduleRepository;
+    private final Clock clock;
+    private final int horizonDays;
+    private final long materializeIntervalMillis;
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public RecurringPaymentService(PaymentRepository paymentRepository,
+                                   @Value("${payments.recurring.horizon-days:31}") int horizonDays,
+                                   @Value("${payments.recurring.materialize-interval-ms:3600000}") long materializeIntervalMillis) {
+        this(paymentRepository, Clock.systemDefaultZone(), horizonDays, materializeIntervalMillis);
+    }
+
+    RecurringPaymentService(PaymentRepository paymentRepository,
+                            Clock clock,
+                            int horizonDays,
+                            long materializeIntervalMillis) {
+        if (horizonDays < 0) {
+            throw new IllegalArgumentException("Recurring horizon cannot be negative");
+        }
+        this.paymentRepository = paymentRepository;
+        this.scheduleRepository = paymentRepository.schedules();
+        this.clock = clock;
+        this.horizonDays = horizonDays;
+        this.materializeIntervalMillis = materializeIntervalMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-payment-materializer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, materializeIntervalMillis, materializeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void tick() {
+        try {
+            materializeHorizon();
+        } catch (RuntimeException e) {
+            log.error("Recurring payment materialization failed", e);
+        }
+    }
+
+    public RecurringScheduleResponse createSchedule(RecurringScheduleRequest request) {
+        validate(request);
+        Entry entry = paymentRepository.callOnShard(request.getAccountId(), () -> {
+            Entry created = paymentRepository.createSchedule(request.getAccountId(), request.getPrincipal(),
+                    request.getInterest(), request.getFrequency(), request.getInterval(),
+                    request.getStartDate(), request.getEndDate());
+            paymentRepository.materialize(created, horizonEnd());
+            return created;
+        });
+        return PaymentMapper.toRecurringResponse(entry.schedule(), entry.materialized());
+    }
+
+    public RecurringScheduleResponse getSchedule(String scheduleId) {
+        Entry entry = scheduleRepository.find(scheduleId);
+        if (entry == null) {
+            throw new RecurringScheduleNotFoundException(scheduleId);
+        }
+        return PaymentMapper.toRecurringResponse(entry.schedule(), entry.materialized());
+    }
+
+    // Stores every occurrence that has entered the horizon and returns how many were stored.
+    public int materializeHorizon() {
+        LocalDate until = horizonEnd();
+        int stored = 0;
+        for (Entry entry : List.copyOf(scheduleRepository.findWithVirtualOnOrBefore(until))) {
+            stored += paymentRepository.callOnShard(entry.schedule().accountId(),
+                    () -> paymentRepository.materialize(entry, until));
+        }
+        return stored;
+    }
+
+    // Stores the occurrence with this payment id, and any earlier ones, if it is a virtual occurrence.
+    public boolean materializeOccurrence(String paymentId) {
+        String scheduleId = RecurringSchedule.scheduleIdOf(paymentId);
+        Entry entry = scheduleId == null ? null : scheduleRepository.find(scheduleId);
+        if (entry == null) {
+            return false;
+        }
+        long n = entry.schedule().occurrenceIndex(paymentId);
+        if (n < 0) {
+            return false;
+        }
+        paymentRepository.callOnShard(entry.schedule().accountId(),
+                () -> paymentRepository.materialize(entry, entry.schedule().occurrenceDate(n)));
+        return true;
+    }
+
+    // Changes whenever a schedule is added to the account.
+    public long getAccountVersion(String accountId) {
+        return scheduleRepository.accountVersion(accountId);
+    }
+
+    /**
+     * The stored history merged with the account's virtual occurrences after the cursor, in key order.
+     * Materialized counts are read before the stored payments, so an occurrence materialized in between
+     * shows up in both, and the merge keeps the stored copy.
+     */
+    public Stream<Payment> withAccountOccurrences(String accountId, PaymentKey after, Supplier<Stream<Payment>> stored) {
+        List<Iterator<Payment>> occurrences = new ArrayList<>();
+        for (Entry entry : scheduleRepository.findByAccount(accountId)) {
+            occurrences.add(virtual(entry, after, null));
+        }
+        return merge(stored.get(), occurrences);
+    }
+
+    /**
+     * The stored payments scheduled within [from, to] merged with every virtual occurrence in the range.
+     * Only schedules whose first virtual occurrence is due by {@code to} are visited, so a range inside
+     * the materialized horizon costs one index seek however many schedules exist.
+     */
+    public Stream<Payment> withDueOccurrences(LocalDate from, LocalDate to, PaymentStatus status,
+                                              Supplier<Stream<Payment>> stored) {
+        List<Iterator<Payment>> occurrences = new ArrayList<>();
+        if (status == null || status == PaymentStatus.SCHEDULED) {
+            for (Entry entry : scheduleRepository.findWithVirtualOnOrBefore(to)) {
+                if (!entry.schedule().endDate().isBefore(from)) {
+                    occurrences.add(virtual(entry, new PaymentKey(from, ""), to));
+                }
+            }
+        }
+        return merge(stored.get(), occurrences);
+    }
+
+    // Virtual occurrences of one schedule after the key and on or before the date (no bound when null).
+    private static Iterator<Payment> virtual(Entry entry, PaymentKey after, LocalDate to) {
+        RecurringSchedule schedule = entry.schedule();
+        long start = entry.materialized();
+        if (after != null) {
+            start = Math.max(start, schedule.firstOccurrenceFrom(after.scheduledDate()));
+        }
+        long first = start;
+        return new Iterator<>() {
+            private long n = first;
+            private Payment next = advance();
+
+            private Payment advance() {
+                while (true) {
+                    Payment occurrence = schedule.occurrence(n++);
+                    if (occurrence == null || to != null && occurrence.getScheduledDate().isAfter(to)) {
+                        return null;
+                    }
+                    if (after == null || PaymentKey.of(occurrence).compareTo(after) > 0) {
+                        return occurrence;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Payment next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Payment occurrence = next;
+                next = advance();
+                return occurrence;
+            }
+        };
+    }
+
+    private static Stream<Payment> merge(Stream<Payment> stored, List<Iterator<Payment>> occurrences) {
+        if (occurrences.isEmpty()) {
+            return stored;
+        }
+        List<Iterator<Payment>> sources = new ArrayList<>(occurrences.size() + 1);
+        sources.add(stored.iterator());
+        sources.addAll(occurrences);
+        // The stored payments come first, so they win over a virtual copy of the same occurrence.
+        return MergingIterator.stream(sources, BY_KEY).onClose(stored::close);
+    }
+
+    private LocalDate horizonEnd() {
+        return LocalDate.now(clock).plusDays(horizonDays);
+    }
+
+    private void validate(RecurringScheduleRequest request) {
+        if (request == null || request.getAccountId() == null || request.getAccountId().isBlank()) {
+            throw new PaymentValidationException("Account id is required");
+        }
+        if (request.getPrincipal() == null || request.getPrincipal().compareTo(BigDecimal.valueOf(100)) < 0) {
+            throw new PaymentValidationException("Principal must be at least 100");
+        }
+        if (request.getInterest() == null || request.getInterest().signum() < 0) {
+            throw new PaymentValidationException("Interest cannot be negative");
+        }
+        if (request.getFrequency() == null || request.getInterval() < 1) {
+            throw new PaymentValidationException("Recurrence needs a frequency and an interval of at least 1");
+        }
+        if (request.getFrequency().span(request.getInterval()).compareTo(MAX_INTERVAL_SPAN) > 0) {
+            throw new PaymentValidationException("Recurrence interval cannot be longer than " + MAX_SCHEDULE_YEARS + " years");
+        }
+        LocalDate tomorrow = LocalDate.now(clock).plusDays(1);
+        if (request.getStartDate() == null || request.getStartDate().isBefore(tomorrow)) {
+            throw new PaymentValidationException("Start date must be at least 1 day in the future");
+        }
+        if (request.getEndDate() == null || request.getEndDate().isBefore(request.getStartDate())) {
+            throw new PaymentValidationException("End date cannot be before the start date");
+        }
+        if (request.getEndDate().isAfter(request.getStartDate().plusYears(MAX_SCHEDULE_YEARS))) {
+            throw new PaymentValidationException("Recurring schedules cannot run longer than " + MAX_SCHEDULE_YEARS + " years");
+        }
+    }
+}
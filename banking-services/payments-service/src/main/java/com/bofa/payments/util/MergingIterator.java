@@ -0,0 +1,70 @@
+package com.bofa.payments.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// K-way merge of sources that are each already in order. Elements that compare equal to the last one
+// returned are dropped, and on a tie the lower-numbered source wins, so a source listed first overrides
+// the copies of its elements in later ones.
+public final class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+    private final Comparator<? super T> order;
+    private T last;
+    private T next;
+
+    public MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        this.order = order;
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+            int byOrder = order.compare(a.element, b.element);
+            return byOrder != 0 ? byOrder : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> source = sources.get(i);
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), i, source));
+            }
+        }
+    }
+
+    // The merge as a lazy, ordered stream.
+    public static <T> Stream<T> stream(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MergingIterator<>(sources, order),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            if (last == null || order.compare(head.element, last) != 0) {
+                last = head.element;
+                next = head.element;
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.source, head.rest));
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = next;
+        next = null;
+        return element;
+    }
+
+    private record Head<T>(T element, int source, Iterator<? extends T> rest) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.bofa.payments.util;
+
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.PaymentKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor over (scheduledDate, paymentId), the order history is indexed in.
+public final class PaymentCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private PaymentCursor() {}
+
+    public static String encode(PaymentKey key) {
+        String raw = key.scheduledDate().toString() + SEPARATOR + key.paymentId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PaymentKey decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new PaymentValidationException("Invalid history cursor");
+            }
+            return new PaymentKey(LocalDate.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaymentValidationException("Invalid history cursor");
+        }
+    }
+}
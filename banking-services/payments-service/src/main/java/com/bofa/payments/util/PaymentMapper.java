@@ -1,7 +1,13 @@
 package com.bofa.payments.util;
 
+import com.bofa.payments.dto.AccountSummaryResponse;
+import com.bofa.payments.dto.PaymentEvent;
 import com.bofa.payments.dto.PaymentResponse;
+import com.bofa.payments.dto.RecurringScheduleResponse;
+import com.bofa.payments.model.AccountSummary;
 import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
 
 public final class PaymentMapper {
 
@@ -18,4 +24,21 @@ public final class PaymentMapper {
                 payment.getStatus()
         );
     }
+
+    public static PaymentEvent toEvent(long sequence, PaymentStatus previousStatus, Payment payment) {
+        return new PaymentEvent(sequence, previousStatus, payment.getVersion(), toResponse(payment));
+    }
+
+    public static AccountSummaryResponse toSummaryResponse(AccountSummary summary) {
+        long paymentCount = summary.byStatus().values().stream().mapToLong(AccountSummary.StatusTotals::count).sum();
+        AccountSummary.StatusTotals scheduled = summary.byStatus().get(PaymentStatus.SCHEDULED);
+        return new AccountSummaryResponse(summary.accountId(), paymentCount, scheduled.principal(),
+                scheduled.interest(), summary.nextDueDate(), summary.byStatus());
+    }
+
+    public static RecurringScheduleResponse toRecurringResponse(RecurringSchedule schedule, long materializedOccurrences) {
+        return new RecurringScheduleResponse(schedule.scheduleId(), schedule.accountId(), schedule.principal(),
+                schedule.interest(), schedule.frequency(), schedule.interval(), schedule.startDate(),
+                schedule.endDate(), materializedOccurrences);
+    }
 }
@@ -0,0 +1,54 @@
+package com.bofa.payments.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+// Encodings the payment APIs serve. The binary formats are Jackson backends, so they reuse every DTO
+// annotation and custom serializer, and amounts stay exact decimals rather than doubles.
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(MediaType.parseMediaType(WireFormat.SMILE_VALUE));
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    // A mapper for this format with the JSON mapper's modules and settings.
+    public ObjectMapper mapperFrom(ObjectMapper json) {
+        return switch (this) {
+            case JSON -> json;
+            case CBOR -> json.copyWith(new CBORFactory());
+            case SMILE -> json.copyWith(new SmileFactory());
+        };
+    }
+
+    // The format the Accept header prefers, by quality and then by order; JSON when it names none of them.
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        WireFormat best = JSON;
+        double bestQuality = -1;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            for (WireFormat format : values()) {
+                if (type.includes(format.mediaType) && type.getQualityValue() > bestQuality) {
+                    best = format;
+                    bestQuality = type.getQualityValue();
+                }
+            }
+        }
+        return best;
+    }
+}
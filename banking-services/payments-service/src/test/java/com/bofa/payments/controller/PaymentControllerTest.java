@@ -0,0 +1,121 @@
+package com.bofa.payments.controller;
+
+import com.bofa.payments.dto.BatchScheduleResponse;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.PaymentRepository;
+import com.bofa.payments.service.IdempotencyStore;
+import com.bofa.payments.service.InterestCalculator;
+import com.bofa.payments.service.MortgageCalculator;
+import com.bofa.payments.service.MortgageEstimateCache;
+import com.bofa.payments.service.MortgageScenarioCalculator;
+import com.bofa.payments.service.PaymentMetrics;
+import com.bofa.payments.service.PaymentService;
+import com.bofa.payments.service.RecurringPaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PaymentControllerTest {
+
+    private PaymentRepository repository;
+    private PaymentController controller;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PaymentRepository();
+        controller = controllerOver(repository);
+    }
+
+    @Test
+    void testScheduleBatchNdjson_SchedulesEachLineInOrder() throws Exception {
+        BatchScheduleResponse response = controller.scheduleBatchNdjson(ndjson(
+                line("CHK-1", 1000) + line("CHK-2", 50) + line("CHK-3", 3000)));
+
+        assertEquals(2, response.getScheduledCount());
+        assertEquals("CHK-1", response.getResults().get(0).getResult().getAccountId());
+        assertEquals("Principal must be at least 100", response.getResults().get(1).getError());
+        assertEquals("CHK-3", response.getResults().get(2).getResult().getAccountId());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void testScheduleBatchNdjson_RejectsOversizedBodyWithoutReadingItAll() {
+        String line = line("CHK-1", 1000);
+        InputStream capPlusOne = ndjson(line.repeat(PaymentService.MAX_BATCH_SIZE + 1));
+        // Anything read past the cap would fail to parse.
+        InputStream body = new SequenceInputStream(capPlusOne, ndjson("not json\n"));
+
+        PaymentValidationException e = assertThrows(PaymentValidationException.class,
+                () -> controller.scheduleBatchNdjson(body));
+
+        assertEquals("Batch cannot contain more than 50000 payments", e.getMessage());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testCalculateInterestBatchNdjson_RejectsOversizedBodyWithoutReadingItAll() {
+        String line = "{\"principal\":1000,\"annualRate\":0.05,\"days\":30}\n";
+        InputStream body = new SequenceInputStream(ndjson(line.repeat(PaymentService.MAX_INTEREST_BATCH_SIZE + 1)),
+                ndjson("not json\n"));
+
+        PaymentValidationException e = assertThrows(PaymentValidationException.class,
+                () -> controller.calculateInterestBatchNdjson(body));
+
+        assertEquals("Batch cannot contain more than 1000000 calculations", e.getMessage());
+    }
+
+    @Test
+    void testExecutePayment_ConcurrentModificationOnEveryAttemptReturnsConflict() throws Exception {
+        PaymentRepository alwaysStale = new PaymentRepository() {
+            @Override
+            public boolean compareAndSet(Payment updated, long expectedVersion) {
+                return false;
+            }
+        };
+        Payment payment = alwaysStale.createScheduled("CHK-1", BigDecimal.valueOf(1000), BigDecimal.ONE, LocalDate.now().plusDays(1));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controllerOver(alwaysStale)).build();
+
+        mvc.perform(post("/payments/execute/{paymentId}", payment.getPaymentId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"executionDate\":\"" + LocalDate.now().plusDays(1) + "\"}"))
+                .andExpect(status().isConflict());
+        assertEquals(PaymentStatus.SCHEDULED, alwaysStale.find(payment.getPaymentId()).getStatus());
+    }
+
+    private static PaymentController controllerOver(PaymentRepository repository) {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        PaymentService service = new PaymentService(repository, new InterestCalculator(), new MortgageCalculator(),
+                new MortgageScenarioCalculator(new MortgageCalculator(), 1),
+                new MortgageEstimateCache(new MortgageCalculator(), objectMapper, 1 << 20, 60),
+                new PaymentMetrics(new SimpleMeterRegistry(), repository),
+                new IdempotencyStore(1_000, 60),
+                new RecurringPaymentService(repository, 31, 3_600_000));
+        return new PaymentController(service, null, null, objectMapper);
+    }
+
+    private static String line(String accountId, int principal) {
+        return "{\"accountId\":\"" + accountId + "\",\"principal\":" + principal + ",\"interest\":1.25,\"scheduledDate\":\""
+                + LocalDate.now().plusDays(2) + "\"}\n";
+    }
+
+    private static InputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,117 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.AccountSummary;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private PaymentJournal journal;
+
+    @Test
+    void testRecover_ReplaysSnapshotAndJournalTail() {
+        PaymentRepository first = open(2);
+        LocalDate date = LocalDate.now().plusDays(3);
+        Payment executed = first.createScheduled("CHK-1", BigDecimal.valueOf(500), new BigDecimal("1.25"), date);
+        Payment pending = first.createScheduled("CHK-1", BigDecimal.valueOf(700), BigDecimal.ZERO, date.plusDays(1));
+        Payment update = executed.copy();
+        update.setStatus(PaymentStatus.EXECUTED);
+        update.setExecutedDate(date);
+        assertTrue(first.compareAndSet(update, executed.getVersion()));
+        first.createScheduled("CHK-2", BigDecimal.valueOf(900), BigDecimal.ONE, date);
+        close();
+
+        PaymentRepository second = open(2);
+        Payment recovered = second.find(executed.getPaymentId());
+        assertEquals(PaymentStatus.EXECUTED, recovered.getStatus());
+        assertEquals(date, recovered.getExecutedDate());
+        assertEquals(new BigDecimal("1.25"), recovered.getInterest());
+        assertEquals(1, recovered.getVersion());
+        assertEquals(2, second.findByAccount("CHK-1").size());
+        assertEquals(pending.getPrincipal(), second.find(pending.getPaymentId()).getPrincipal());
+        assertEquals(1, second.findByAccount("CHK-2").size());
+        assertEquals(1, second.findByAccount("CHK-100").size(), "seed data must not be re-added on recovery");
+        close();
+    }
+
+    @Test
+    void testRecover_RestoresRecurringSchedulesWithMaterializedCounts() {
+        PaymentRepository first = open(3);
+        LocalDate start = LocalDate.now().plusDays(1);
+        RecurringScheduleRepository.Entry created = first.createSchedule("MTG-1", BigDecimal.valueOf(1500),
+                BigDecimal.valueOf(400), RecurringSchedule.Frequency.MONTHLY, 1, start, start.plusYears(10).minusDays(1));
+        assertEquals(3, first.materialize(created, start.plusMonths(2)));
+        String scheduleId = created.schedule().scheduleId();
+        AccountSummary before = first.summarizeAccount("MTG-1");
+        close();
+
+        PaymentRepository second = open(3);
+        RecurringScheduleRepository.Entry recovered = second.schedules().find(scheduleId);
+        assertEquals(created.schedule(), recovered.schedule());
+        assertEquals(3, recovered.materialized());
+        assertEquals(3, second.findByAccount("MTG-1").size());
+        assertEquals(before, second.summarizeAccount("MTG-1"));
+        assertEquals(List.of(recovered), List.copyOf(second.schedules().findWithVirtualOnOrBefore(start.plusMonths(3))));
+        assertEquals(1, second.materialize(recovered, start.plusMonths(3)));
+        assertEquals(4, second.findByAccount("MTG-1").size());
+        close();
+    }
+
+    @Test
+    void testAwaitDurable_FailsWritesAfterForceFailureInsteadOfHanging() {
+        AtomicBoolean diskFailing = new AtomicBoolean();
+        journal = new PaymentJournal(directory.toString(), 1, 1_000, true, 1) {
+            @Override
+            void force(MappedByteBuffer buffer) {
+                if (diskFailing.get()) {
+                    throw new UncheckedIOException(new IOException("disk gone"));
+                }
+                super.force(buffer);
+            }
+        };
+        PaymentRepository repository = new PaymentRepository(Optional.of(journal));
+        repository.seed();
+        LocalDate date = LocalDate.now().plusDays(3);
+        diskFailing.set(true);
+
+        IllegalStateException first = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(
+                IllegalStateException.class, () -> repository.createScheduled("CHK-1", BigDecimal.TEN, BigDecimal.ONE, date)));
+        IllegalStateException next = assertThrows(IllegalStateException.class,
+                () -> repository.createScheduled("CHK-1", BigDecimal.TEN, BigDecimal.ONE, date));
+
+        assertEquals("disk gone", first.getCause().getCause().getMessage());
+        assertEquals("Payment journal failed", next.getMessage());
+        diskFailing.set(false);
+        close();
+    }
+
+    private PaymentRepository open(long snapshotEvery) {
+        journal = new PaymentJournal(directory.toString(), 1, snapshotEvery, true, 1);
+        PaymentRepository repository = new PaymentRepository(Optional.of(journal));
+        repository.seed();
+        return repository;
+    }
+
+    private void close() {
+        journal.close();
+    }
+}
@@ -0,0 +1,358 @@
+package com.bofa.payments.repository;
+
+import com.bofa.payments.model.AccountSummary;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentKey;
+import com.bofa.payments.model.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentRepositoryTest {
+
+    private PaymentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PaymentRepository();
+    }
+
+    @Test
+    void testFindByAccount_OrderedByScheduledDate() {
+        LocalDate today = LocalDate.now();
+        Payment late = repository.createScheduled("CHK-1", BigDecimal.valueOf(300), BigDecimal.ONE, today.plusDays(9));
+        Payment early = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, today.plusDays(1));
+        repository.createScheduled("CHK-2", BigDecimal.valueOf(200), BigDecimal.ONE, today.plusDays(4));
+
+        List<Payment> history = repository.findByAccount("CHK-1");
+
+        assertEquals(List.of(early, late), history);
+        assertTrue(repository.findByAccount("CHK-404").isEmpty());
+    }
+
+    @Test
+    void testUpdate_MovesPaymentWithinAccountIndex() {
+        LocalDate today = LocalDate.now();
+        Payment first = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, today.plusDays(1));
+        Payment second = repository.createScheduled("CHK-1", BigDecimal.valueOf(200), BigDecimal.ONE, today.plusDays(5));
+
+        first.setScheduledDate(today.plusDays(10));
+        first.setStatus(PaymentStatus.EXECUTED);
+        repository.update(first);
+
+        assertEquals(List.of(second, first), repository.findByAccount("CHK-1"));
+
+        second.setAccountId("CHK-2");
+        repository.update(second);
+
+        assertEquals(List.of(first), repository.findByAccount("CHK-1"));
+        assertEquals(List.of(second), repository.findByAccount("CHK-2"));
+    }
+
+    @Test
+    void testReadEvents_PublishesWritesInOrder() {
+        Payment payment = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, LocalDate.now().plusDays(1));
+        Payment executed = payment.copy();
+        executed.setStatus(PaymentStatus.EXECUTED);
+        assertTrue(repository.compareAndSet(executed, 0));
+
+        List<String> events = new ArrayList<>();
+        long next = repository.readEvents(0, 10, (sequence, previousStatus, event) ->
+                events.add(sequence + ":" + previousStatus + ":" + event.getStatus() + ":" + event.getVersion()));
+
+        assertEquals(List.of("0:null:SCHEDULED:0", "1:SCHEDULED:EXECUTED:1"), events);
+        assertEquals(2, next);
+        assertEquals(2, repository.readEvents(next, 10, (sequence, previousStatus, event) -> fail()));
+    }
+
+    @Test
+    void testAwaitEvents_WakesOnPublishAndTimesOutWithoutOne() throws Exception {
+        long next = repository.nextEventSequence();
+        assertFalse(repository.awaitEvents(next, TimeUnit.MILLISECONDS.toNanos(20)));
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            writer.submit(() -> {
+                Thread.sleep(50);
+                return repository.createScheduled("CHK-1", BigDecimal.TEN, BigDecimal.ONE, LocalDate.now().plusDays(1));
+            });
+            long started = System.nanoTime();
+            assertTrue(repository.awaitEvents(next, TimeUnit.SECONDS.toNanos(30)));
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(10));
+        } finally {
+            writer.shutdown();
+        }
+        assertEquals(next + 1, repository.readEvents(next, 10, (sequence, previousStatus, event) -> { }));
+    }
+
+    @Test
+    void testReadEvents_LappedReaderSkipsToOldestEvent() {
+        PaymentRepository small = new PaymentRepository(Optional.empty(), 4);
+        for (int i = 0; i < 10; i++) {
+            small.createScheduled("CHK-1", BigDecimal.valueOf(100 + i), BigDecimal.ONE, LocalDate.now().plusDays(1));
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        long next = small.readEvents(0, 10, (sequence, previousStatus, event) -> sequences.add(sequence));
+
+        assertEquals(List.of(6L, 7L, 8L, 9L), sequences);
+        assertEquals(10, next);
+    }
+
+    @Test
+    void testSortKey_DayStartSortsBeforeEveryIdOnItsDay() {
+        LocalDate today = LocalDate.now();
+        PaymentSortKey dayStart = PaymentSortKey.dayStart(today);
+        PaymentSortKey emptyId = PaymentSortKey.of(today, new String(""));
+        PaymentSortKey literalEmptyId = PaymentSortKey.of(today, "");
+        PaymentSortKey uuid = PaymentSortKey.of(today, new UUID(0, 0).toString());
+
+        assertTrue(dayStart.compareTo(emptyId) < 0);
+        assertTrue(dayStart.compareTo(literalEmptyId) < 0);
+        assertTrue(emptyId.compareTo(dayStart) > 0);
+        assertEquals(0, emptyId.compareTo(literalEmptyId));
+        assertTrue(emptyId.compareTo(uuid) < 0);
+        assertTrue(dayStart.compareTo(uuid) < 0);
+        assertTrue(PaymentSortKey.dayStart(today.plusDays(1)).compareTo(uuid) > 0);
+        assertNotEquals(dayStart, literalEmptyId);
+        assertEquals(0, dayStart.compareTo(PaymentSortKey.dayStart(today)));
+    }
+
+    @Test
+    void testPublish_WriterLappedBeforeFillingItsSlotGivesItUp() {
+        PaymentEventRing ring = new PaymentEventRing(2);
+        Payment payment = repository.createScheduled("CHK-1", BigDecimal.ONE, BigDecimal.ONE, LocalDate.now().plusDays(1));
+        StoredPayment image = StoredPayment.of(payment, PaymentSortKey.of(PaymentKey.of(payment)), null, "CHK-1", 0);
+        long stalled = ring.claim();
+        long second = ring.claim();
+        long third = ring.claim();
+
+        ring.publish(third, PaymentStatus.SCHEDULED, image);
+        ring.publish(second, null, image);
+        ring.publish(stalled, PaymentStatus.EXECUTED, image);
+
+        List<String> events = new ArrayList<>();
+        long next = ring.read(0, 10, (sequence, previousStatus, event) -> events.add(sequence + ":" + previousStatus));
+        assertEquals(List.of("1:null", "2:SCHEDULED"), events);
+        assertEquals(3, next);
+    }
+
+    @Test
+    void testReadEvents_ConcurrentWritersKeepPerPaymentOrder() throws Exception {
+        int threads = 4;
+        int updates = 5_000;
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            payments.add(repository.createScheduled("CHK-" + i, BigDecimal.TEN, BigDecimal.ONE, LocalDate.now().plusDays(1)));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Payment payment : payments) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < updates; i++) {
+                        repository.update(payment);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, Long> lastVersion = new HashMap<>();
+        long next = repository.readEvents(0, Integer.MAX_VALUE, (sequence, previousStatus, event) -> {
+            Long previous = lastVersion.put(event.getPaymentId(), event.getVersion());
+            assertEquals(previous == null ? 0 : previous + 1, event.getVersion());
+        });
+
+        assertEquals(threads * (updates + 1L), next);
+        payments.forEach(payment -> assertEquals(updates, lastVersion.get(payment.getPaymentId())));
+    }
+
+    @Test
+    void testSummarizeAccount_TracksWritesIncrementally() {
+        LocalDate today = LocalDate.now();
+        Payment first = repository.createScheduled("CHK-1", new BigDecimal("100.00"), new BigDecimal("1.50"), today.plusDays(3));
+        Payment second = repository.createScheduled("CHK-1", new BigDecimal("200.00"), new BigDecimal("2.50"), today.plusDays(7));
+        Payment moved = repository.createScheduled("CHK-1", new BigDecimal("50.00"), BigDecimal.ONE, today.plusDays(1));
+
+        Payment executed = first.copy();
+        executed.setStatus(PaymentStatus.EXECUTED);
+        executed.setInterest(new BigDecimal("1.75"));
+        assertTrue(repository.compareAndSet(executed, first.getVersion()));
+        moved.setAccountId("CHK-2");
+        repository.update(moved);
+
+        AccountSummary summary = repository.summarizeAccount("CHK-1");
+        assertEquals(new AccountSummary.StatusTotals(1, new BigDecimal("200.00"), new BigDecimal("2.50")),
+                summary.byStatus().get(PaymentStatus.SCHEDULED));
+        assertEquals(new AccountSummary.StatusTotals(1, new BigDecimal("100.00"), new BigDecimal("1.75")),
+                summary.byStatus().get(PaymentStatus.EXECUTED));
+        assertEquals(second.getScheduledDate(), summary.nextDueDate());
+        assertEquals(today.plusDays(1), repository.summarizeAccount("CHK-2").nextDueDate());
+        assertNull(repository.summarizeAccount("CHK-404").nextDueDate());
+    }
+
+    @Test
+    void testStreamByScheduledDate_FiltersRangeAndStatus() {
+        LocalDate today = LocalDate.now();
+        Payment before = repository.createScheduled("CHK-1", BigDecimal.ONE, BigDecimal.ONE, today.plusDays(1));
+        Payment late = repository.createScheduled("CHK-2", BigDecimal.ONE, BigDecimal.ONE, today.plusDays(6));
+        Payment early = repository.createScheduled("CHK-3", BigDecimal.ONE, BigDecimal.ONE, today.plusDays(2));
+        Payment executed = repository.createScheduled("CHK-1", BigDecimal.ONE, BigDecimal.ONE, today.plusDays(4));
+        repository.createScheduled("CHK-1", BigDecimal.ONE, BigDecimal.ONE, today.plusDays(7));
+        executed.setStatus(PaymentStatus.EXECUTED);
+        repository.update(executed);
+
+        LocalDate from = today.plusDays(2);
+        LocalDate to = today.plusDays(6);
+        assertEquals(List.of(early, executed, late), repository.streamByScheduledDate(from, to, null).toList());
+        assertEquals(List.of(early, late), repository.streamByScheduledDate(from, to, PaymentStatus.SCHEDULED).toList());
+        assertEquals(List.of(executed), repository.streamByScheduledDate(from, to, PaymentStatus.EXECUTED).toList());
+        assertEquals(List.of(before), repository.streamByScheduledDate(today, today.plusDays(1), null).toList());
+    }
+
+    @Test
+    void testSharded_FansOutReadsAndMovesPaymentsBetweenShards() {
+        PaymentRepository sharded = new PaymentRepository(Optional.empty(), new TimeOrderedPaymentIdGenerator(), 1 << 10, 4);
+        try {
+            LocalDate today = LocalDate.now();
+            List<Payment> created = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                created.add(sharded.createScheduled("CHK-" + i % 10, BigDecimal.valueOf(100 + i), BigDecimal.ONE,
+                        today.plusDays(1 + i % 7)));
+            }
+            String from = "CHK-1";
+            String to = "CHK-2";
+            assertNotEquals(sharded.shardOf(from), sharded.shardOf(to));
+
+            List<Payment> byKey = new ArrayList<>(created);
+            byKey.sort((a, b) -> PaymentKey.of(a).compareTo(PaymentKey.of(b)));
+            assertEquals(40, sharded.count());
+            assertEquals(40, sharded.countByStatus(PaymentStatus.SCHEDULED));
+            assertEquals(byKey, sharded.streamByScheduledDate(today, today.plusDays(7), null).toList());
+            assertEquals(byKey.subList(0, 15), sharded.findScheduledDue(new PaymentKey(today, ""), today.plusDays(7), 15));
+            assertEquals(byKey.subList(15, 40), sharded.findScheduledDue(PaymentKey.of(byKey.get(14)), today.plusDays(7), 100));
+
+            Payment moved = sharded.findByAccount(from).get(0);
+            moved.setAccountId(to);
+            sharded.update(moved);
+
+            assertEquals(3, sharded.findByAccount(from).size());
+            assertEquals(5, sharded.findByAccount(to).size());
+            assertEquals(to, sharded.find(moved.getPaymentId()).getAccountId());
+            assertEquals(1, sharded.find(moved.getPaymentId()).getVersion());
+            assertEquals(40, sharded.count());
+            assertEquals(3, sharded.summarizeAccount(from).byStatus().get(PaymentStatus.SCHEDULED).count());
+            assertEquals(5, sharded.summarizeAccount(to).byStatus().get(PaymentStatus.SCHEDULED).count());
+            assertEquals("payment-shard-" + sharded.shardOf(to), sharded.callOnShard(to, () -> Thread.currentThread().getName()));
+        } finally {
+            sharded.stop();
+        }
+    }
+
+    @Test
+    void testCompareAndSet_RejectsStaleVersion() {
+        Payment stored = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, LocalDate.now().plusDays(1));
+
+        Payment first = stored.copy();
+        first.setStatus(PaymentStatus.EXECUTED);
+        Payment second = stored.copy();
+        second.setStatus(PaymentStatus.FAILED);
+
+        assertTrue(repository.compareAndSet(first, 0));
+        assertFalse(repository.compareAndSet(second, 0));
+        assertEquals(PaymentStatus.EXECUTED, repository.find(stored.getPaymentId()).getStatus());
+        assertEquals(1, repository.find(stored.getPaymentId()).getVersion());
+    }
+
+    @Test
+    void testFindByAccount_KeysetPages() {
+        LocalDate today = LocalDate.now();
+        Payment first = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, today.plusDays(1));
+        Payment second = repository.createScheduled("CHK-1", BigDecimal.valueOf(200), BigDecimal.ONE, today.plusDays(2));
+        Payment third = repository.createScheduled("CHK-1", BigDecimal.valueOf(300), BigDecimal.ONE, today.plusDays(3));
+
+        assertEquals(List.of(first, second), repository.findByAccount("CHK-1", null, 2));
+        assertEquals(List.of(third), repository.findByAccount("CHK-1", PaymentKey.of(second), 2));
+        assertTrue(repository.findByAccount("CHK-1", PaymentKey.of(third), 2).isEmpty());
+    }
+
+    @Test
+    void testFind_RoundTripsCompactAndFallbackFields() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        Payment generated = repository.createScheduled("CHK-1", new BigDecimal("1200.50"), new BigDecimal("0.0375"), date);
+        Payment custom = new Payment("legacy-42", "CHK-1", new BigDecimal("12345678901234567890.12"), null, date,
+                date.plusDays(1), PaymentStatus.EXECUTED);
+        repository.add(custom);
+
+        Payment found = repository.find(generated.getPaymentId());
+        assertEquals(new BigDecimal("1200.50"), found.getPrincipal());
+        assertEquals(new BigDecimal("0.0375"), found.getInterest());
+        assertEquals(date, found.getScheduledDate());
+
+        Payment legacy = repository.find("legacy-42");
+        assertEquals(new BigDecimal("12345678901234567890.12"), legacy.getPrincipal());
+        assertNull(legacy.getInterest());
+        assertEquals(date.plusDays(1), legacy.getExecutedDate());
+        assertEquals(PaymentStatus.EXECUTED, legacy.getStatus());
+
+        // A custom id sorts among generated ones by its string, as it did before ids were coded.
+        List<Payment> expected = new ArrayList<>(List.of(generated, custom));
+        expected.sort((a, b) -> a.getPaymentId().compareTo(b.getPaymentId()));
+        assertEquals(expected, repository.findByAccount("CHK-1"));
+    }
+
+    @Test
+    void testTimeOrderedIds_MonotonicWithinAndAcrossMilliseconds() {
+        long[] now = {1_700_000_000_000L};
+        TimeOrderedPaymentIdGenerator generator = new TimeOrderedPaymentIdGenerator(() -> now[0]);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                now[0] -= 1_000; // clock stepped back
+            }
+            String id = generator.nextId();
+            assertTrue(id.compareTo(previous) > 0, id + " after " + previous);
+            previous = id;
+        }
+        UUID id = UUID.fromString(previous);
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(previous, id.toString());
+    }
+
+    @Test
+    void testAccountVersion_BumpsOnEveryWriteToTheAccount() {
+        assertEquals(0, repository.accountVersion("CHK-1"));
+        Payment payment = repository.createScheduled("CHK-1", BigDecimal.valueOf(100), BigDecimal.ONE, LocalDate.now().plusDays(1));
+        repository.createScheduled("CHK-2", BigDecimal.valueOf(100), BigDecimal.ONE, LocalDate.now().plusDays(1));
+        assertEquals(1, repository.accountVersion("CHK-1"));
+
+        assertFalse(repository.compareAndSet(repository.find(payment.getPaymentId()), 7));
+        assertEquals(1, repository.accountVersion("CHK-1"));
+
+        payment.setAccountId("CHK-2");
+        repository.update(payment);
+        assertEquals(2, repository.accountVersion("CHK-1"));
+        assertEquals(2, repository.accountVersion("CHK-2"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuePaymentSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 15);
+
+    private PaymentRepository repository;
+    private DuePaymentScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PaymentRepository();
+        PaymentService service = new PaymentService(repository, new InterestCalculator(), new MortgageCalculator(),
+                new MortgageScenarioCalculator(new MortgageCalculator(), 1),
+                new MortgageEstimateCache(new MortgageCalculator(), new ObjectMapper(), 1 << 20, 60),
+                new PaymentMetrics(new SimpleMeterRegistry(), repository),
+                new IdempotencyStore(1_000, 60),
+                new RecurringPaymentService(repository, 31, 3_600_000));
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneId.of("UTC"));
+        scheduler = new DuePaymentScheduler(repository, service, clock, 2, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void testExecuteDuePayments_ExecutesOnlyDueWindow() throws Exception {
+        Payment dueToday = schedule(TODAY, BigDecimal.valueOf(0.04));
+        Payment dueLastWeek = schedule(TODAY.minusDays(7), BigDecimal.valueOf(0.04));
+        Payment dueYesterday = schedule(TODAY.minusDays(1), BigDecimal.valueOf(0.04));
+        Payment future = schedule(TODAY.plusDays(1), BigDecimal.valueOf(0.04));
+        Payment tooLate = schedule(TODAY.minusDays(16), BigDecimal.valueOf(0.04));
+        Payment invalid = schedule(TODAY.minusDays(2), BigDecimal.ZERO); // zero rate fails interest validation
+
+        assertEquals(3, scheduler.executeDuePayments());
+
+        assertEquals(PaymentStatus.EXECUTED, statusOf(dueToday));
+        assertEquals(PaymentStatus.EXECUTED, statusOf(dueLastWeek));
+        assertEquals(PaymentStatus.EXECUTED, statusOf(dueYesterday));
+        assertEquals(TODAY, repository.find(dueLastWeek.getPaymentId()).getExecutedDate());
+        assertEquals(PaymentStatus.SCHEDULED, statusOf(future));
+        assertEquals(PaymentStatus.SCHEDULED, statusOf(tooLate));
+        assertEquals(PaymentStatus.SCHEDULED, statusOf(invalid));
+
+        assertEquals(0, scheduler.executeDuePayments());
+    }
+
+    private Payment schedule(LocalDate date, BigDecimal interest) {
+        return repository.createScheduled("CHK-1", BigDecimal.valueOf(1000), interest, date);
+    }
+
+    private PaymentStatus statusOf(Payment payment) {
+        return repository.find(payment.getPaymentId()).getStatus();
+    }
+}
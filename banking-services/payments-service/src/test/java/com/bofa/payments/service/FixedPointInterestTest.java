@@ -0,0 +1,78 @@
+package com.bofa.payments.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The fixed-point path must return exactly what the BigDecimal path returns, scale included.
+ */
+public class FixedPointInterestTest {
+
+    private static final MathContext MC = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    private final InterestCalculator calculator = new InterestCalculator();
+
+    @Test
+    void testAccrueCents_MatchesBigDecimalPathOnRandomInputs() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal principal = BigDecimal.valueOf(1 + random.nextLong(100_000_000_000L), random.nextInt(3));
+            BigDecimal rate = BigDecimal.valueOf(1_000 + random.nextLong(400_000), 6).stripTrailingZeros();
+            int chargeableDays = 1 + random.nextInt(3647);
+            assertNotEquals(FixedPointInterest.OUT_OF_RANGE, accrueCents(principal, rate, chargeableDays),
+                    () -> principal + " @ " + rate + " for " + chargeableDays);
+            assertMatches(principal, rate, chargeableDays);
+        }
+    }
+
+    @Test
+    void testAccrueCents_MatchesBigDecimalPathOnBoundaries() {
+        String[] principals = {"0.01", "1", "999.995", "1000", "12345678.91", "99999999999999.99", "1E+9"};
+        String[] rates = {"0.0001", "0.01", "0.05", "0.0525", "0.199999", "1", "3.65", "36.5", "99.99"};
+        int[] chargeableDays = {1, 2, 7, 30, 31, 64, 99, 100, 365, 512, 999, 1000, 1024, 3647};
+        for (String principal : principals) {
+            for (String rate : rates) {
+                for (int days : chargeableDays) {
+                    assertMatches(new BigDecimal(principal), new BigDecimal(rate), days);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAccrueCents_TypicalInputsTakeTheFastPath() {
+        assertNotEquals(FixedPointInterest.OUT_OF_RANGE,
+                accrueCents(new BigDecimal("250000.00"), new BigDecimal("0.0675"), 360));
+        assertEquals(FixedPointInterest.OUT_OF_RANGE,
+                accrueCents(new BigDecimal("123456789012345678.9"), new BigDecimal("0.05"), 30));
+    }
+
+    private void assertMatches(BigDecimal principal, BigDecimal rate, int chargeableDays) {
+        BigDecimal expected = compoundWithBigDecimal(principal, rate, chargeableDays);
+        long cents = accrueCents(principal, rate, chargeableDays);
+        BigDecimal actual = cents == FixedPointInterest.OUT_OF_RANGE
+                ? compoundWithBigDecimal(principal, rate, chargeableDays)
+                : BigDecimal.valueOf(cents, 2);
+        assertEquals(expected, actual, () -> principal + " @ " + rate + " for " + chargeableDays);
+        assertEquals(expected, calculator.calculateDailyCompound(principal, rate, chargeableDays + 3));
+    }
+
+    // The fixed-point path as CompoundFactor takes it, without the factor cache in between.
+    private static long accrueCents(BigDecimal principal, BigDecimal annualRate, int chargeableDays) {
+        FixedPointInterest.Decimal factor = FixedPointInterest.compoundFactor(annualRate, chargeableDays);
+        return factor == null ? FixedPointInterest.OUT_OF_RANGE : FixedPointInterest.applyFactor(principal, factor);
+    }
+
+    // Reference implementation; the fixed-point path must match it exactly.
+    static BigDecimal compoundWithBigDecimal(BigDecimal principal, BigDecimal annualRate, int chargeableDays) {
+        BigDecimal dailyRate = annualRate.divide(BigDecimal.valueOf(365), MC);
+        BigDecimal factor = BigDecimal.ONE.add(dailyRate).pow(chargeableDays, MC);
+        return principal.multiply(factor.subtract(BigDecimal.ONE), MC).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
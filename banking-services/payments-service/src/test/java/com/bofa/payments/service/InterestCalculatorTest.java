@@ -63,4 +63,22 @@ public class InterestCalculatorTest {
         assertTrue(exception.getMessage().contains("Principal must be positive"),
             "Exception message should mention principal requirement");
     }
+
+    /**
+     * Test: Rates that differ only in trailing zeros share one cached factor, and prewarmed
+     * rates are served from the cache.
+     */
+    @Test
+    void testCalculateDailyCompound_ReusesCachedFactor() {
+        InterestCalculator cached = new InterestCalculator(10_000, "0.0525");
+        cached.prewarm();
+
+        BigDecimal first = cached.calculateDailyCompound(BigDecimal.valueOf(2500), new BigDecimal("0.0525"), 30);
+        BigDecimal second = cached.calculateDailyCompound(BigDecimal.valueOf(9100), new BigDecimal("0.052500"), 30);
+
+        assertEquals(FixedPointInterestTest.compoundWithBigDecimal(BigDecimal.valueOf(2500), new BigDecimal("0.0525"), 27), first);
+        assertEquals(FixedPointInterestTest.compoundWithBigDecimal(BigDecimal.valueOf(9100), new BigDecimal("0.0525"), 27), second);
+        assertEquals(2, cached.factorCacheStats().getHitCount());
+        assertEquals(3647, cached.factorCacheStats().getMissCount());
+    }
 }
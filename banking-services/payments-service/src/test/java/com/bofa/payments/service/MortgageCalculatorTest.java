@@ -0,0 +1,127 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.AmortizationInstallment;
+import com.bofa.payments.dto.AmortizationSchedulePage;
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.dto.MortgageEstimateResponse;
+import com.bofa.payments.dto.MortgageScenarioRequest;
+import com.bofa.payments.dto.MortgageScenarioResponse;
+import com.bofa.payments.dto.MortgageScenarioRow;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+import com.bofa.payments.util.WireFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MortgageCalculatorTest {
+
+    private final MortgageCalculator calculator = new MortgageCalculator();
+
+    @Test
+    void testSummarize_MatchesFullEstimate() {
+        MortgageEstimateRequest request = request("6.5", 360, "1500");
+
+        MortgageEstimateResponse full = calculator.estimate(request);
+        MortgageSummaryResponse summary = calculator.summarize(request);
+
+        assertEquals(full.getMonthlyPayment(), summary.getMonthlyPayment());
+        assertEquals(full.isPmiRequired(), summary.isPmiRequired());
+        assertEquals(full.getEstimatedMonthsToPayoff(), summary.getEstimatedMonthsToPayoff());
+        assertTrue(summary.getTotalInterest().signum() > 0);
+        assertEquals(new BigDecimal("720.00"), summary.getTotalPenalty()); // 2% of 1500 for 24 months
+    }
+
+    @Test
+    void testSchedulePage_PagesConcatenateToFullSchedule() {
+        MortgageEstimateRequest request = request("5.25", 180, "0");
+
+        List<AmortizationInstallment> paged = new ArrayList<>();
+        Integer fromMonth = 1;
+        while (fromMonth != null) {
+            AmortizationSchedulePage page = calculator.schedulePage(request, fromMonth, 50);
+            paged.addAll(page.getInstallments());
+            fromMonth = page.getNextMonth();
+        }
+
+        List<AmortizationInstallment> full = calculator.estimate(request).getSchedule();
+        assertEquals(full.size(), paged.size());
+        for (int i = 0; i < full.size(); i++) {
+            assertEquals(full.get(i).getMonth(), paged.get(i).getMonth());
+            assertEquals(full.get(i).getPrincipalComponent(), paged.get(i).getPrincipalComponent());
+            assertEquals(full.get(i).getRemainingBalance(), paged.get(i).getRemainingBalance());
+        }
+    }
+
+    @Test
+    void testScenarioGrid_RowsMatchIndividualSummaries() {
+        MortgageScenarioRequest grid = new MortgageScenarioRequest();
+        grid.setLoanAmount(new BigDecimal("300000"));
+        grid.setPropertyValue(new BigDecimal("350000"));
+        grid.setDownPayment(new BigDecimal("50000"));
+        grid.setAnnualRates(List.of(new BigDecimal("5.5"), new BigDecimal("6.25"), new BigDecimal("7")));
+        grid.setTermMonths(List.of(180, 360));
+        grid.setOptionalMonthlyPrepayments(List.of(BigDecimal.ZERO, new BigDecimal("500")));
+
+        MortgageScenarioResponse response = new MortgageScenarioCalculator(calculator, 2).calculate(grid);
+
+        assertEquals(12, response.getScenarioCount());
+        for (MortgageScenarioRow row : response.getScenarios()) {
+            MortgageSummaryResponse expected = calculator.summarize(request(row.getAnnualRate().toPlainString(),
+                    row.getTermMonths(), row.getOptionalMonthlyPrepayment().toPlainString()));
+            assertEquals(expected.getMonthlyPayment(), row.getMonthlyPayment());
+            assertEquals(expected.getEstimatedMonthsToPayoff(), row.getEstimatedMonthsToPayoff());
+            assertEquals(expected.getTotalInterest(), row.getTotalInterest());
+            assertEquals(expected.getTotalPenalty(), row.getTotalPenalty());
+        }
+    }
+
+    @Test
+    void testEstimateCache_NormalizedRequestsShareSerializedResponse() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        MortgageEstimateCache cache = new MortgageEstimateCache(calculator, objectMapper, 1 << 20, 60);
+        MortgageEstimateRequest first = request("6.5", 360, "0");
+        MortgageEstimateRequest second = request("6.500", 360, "0.00");
+        second.setLoanAmount(new BigDecimal("300000.00"));
+
+        byte[] computed = cache.estimate(first, WireFormat.JSON);
+        byte[] cached = cache.estimate(second, WireFormat.JSON);
+
+        assertSame(computed, cached);
+        assertArrayEquals(objectMapper.writeValueAsBytes(calculator.estimate(second)), cached);
+        assertEquals(1, cache.stats().getHitCount());
+        assertEquals(1, cache.stats().getMissCount());
+    }
+
+    @Test
+    void testEstimateCache_BinaryFormatsDecodeToJsonTree() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        MortgageEstimateCache cache = new MortgageEstimateCache(calculator, objectMapper, 1 << 20, 60);
+        MortgageEstimateRequest request = request("6.5", 480, "0");
+
+        JsonNode json = objectMapper.readTree(cache.estimate(request, WireFormat.JSON));
+        for (WireFormat format : List.of(WireFormat.CBOR, WireFormat.SMILE)) {
+            byte[] encoded = cache.estimate(request, format);
+            assertEquals(json, format.mapperFrom(objectMapper).readTree(encoded), format.name());
+            assertSame(encoded, cache.estimate(request, format));
+        }
+        assertEquals(json.get("estimatedMonthsToPayoff").asInt(), json.get("schedule").size());
+    }
+
+    private static MortgageEstimateRequest request(String annualRate, int termMonths, String prepayment) {
+        MortgageEstimateRequest request = new MortgageEstimateRequest();
+        request.setLoanAmount(new BigDecimal("300000"));
+        request.setPropertyValue(new BigDecimal("350000"));
+        request.setDownPayment(new BigDecimal("50000"));
+        request.setAnnualRate(new BigDecimal(annualRate));
+        request.setTermMonths(termMonths);
+        request.setOptionalMonthlyPrepayment(new BigDecimal(prepayment));
+        return request;
+    }
+}
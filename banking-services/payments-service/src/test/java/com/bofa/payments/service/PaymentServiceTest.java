@@ -0,0 +1,457 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.AccountSummaryResponse;
+import com.bofa.payments.dto.BatchInterestResponse;
+import com.bofa.payments.dto.BatchScheduleResponse;
+import com.bofa.payments.dto.InterestCalculationRequest;
+import com.bofa.payments.dto.PaymentExecutionRequest;
+import com.bofa.payments.dto.PaymentResponse;
+import com.bofa.payments.dto.PaymentScheduleRequest;
+import com.bofa.payments.dto.RecurringScheduleRequest;
+import com.bofa.payments.dto.RecurringScheduleResponse;
+import com.bofa.payments.exception.IdempotencyKeyReusedException;
+import com.bofa.payments.exception.PaymentValidationException;
+import com.bofa.payments.model.Payment;
+import com.bofa.payments.model.PaymentStatus;
+import com.bofa.payments.model.RecurringSchedule;
+import com.bofa.payments.repository.PaymentRepository;
+import com.bofa.payments.repository.TimeOrderedPaymentIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentServiceTest {
+
+    private PaymentRepository repository;
+    private PaymentService service;
+    private SimpleMeterRegistry registry;
+    private RecurringPaymentService recurring;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PaymentRepository();
+        registry = new SimpleMeterRegistry();
+        recurring = new RecurringPaymentService(repository, 31, 3_600_000);
+        service = new PaymentService(repository, new InterestCalculator(), new MortgageCalculator(),
+                new MortgageScenarioCalculator(new MortgageCalculator(), 1),
+                new MortgageEstimateCache(new MortgageCalculator(), new ObjectMapper(), 1 << 20, 60),
+                new PaymentMetrics(registry, repository),
+                new IdempotencyStore(1_000, 60),
+                recurring);
+    }
+
+    @Test
+    void testExecutePayment_ConcurrentExecutesApplyOnce() throws Exception {
+        LocalDate scheduledDate = LocalDate.now().plusDays(1);
+        Payment payment = repository.createScheduled("CHK-1", BigDecimal.valueOf(1000), BigDecimal.valueOf(0.05), scheduledDate);
+        PaymentExecutionRequest request = new PaymentExecutionRequest();
+        request.setExecutionDate(scheduledDate.plusDays(10));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.executePayment(payment.getPaymentId(), request);
+                    } catch (PaymentValidationException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Payment stored = repository.find(payment.getPaymentId());
+        assertEquals(threads - 1, rejected.get());
+        assertEquals(PaymentStatus.EXECUTED, stored.getStatus());
+        assertEquals(1, stored.getVersion());
+        BigDecimal accruedOnce = new InterestCalculator().calculateDailyCompound(BigDecimal.valueOf(1000), BigDecimal.valueOf(0.05), 10);
+        assertEquals(BigDecimal.valueOf(0.05).add(accruedOnce), stored.getInterest());
+    }
+
+    @Test
+    void testScheduleBatch_KeepsRequestOrderAndReportsItemFailures() {
+        List<PaymentScheduleRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(scheduleRequest("CHK-" + i, BigDecimal.valueOf(1000 + i)));
+        }
+        requests.get(1).setPrincipal(BigDecimal.valueOf(50));
+        requests.get(3).setAccountId(" ");
+        requests.get(4).setInterest(null);
+
+        BatchScheduleResponse response = service.scheduleBatch(requests);
+
+        assertEquals(3, response.getScheduledCount());
+        assertEquals(3, response.getRejectedCount());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+        }
+        assertEquals("Principal must be at least 100", response.getResults().get(1).getError());
+        assertEquals("Account id is required", response.getResults().get(3).getError());
+        assertEquals("Interest is required", response.getResults().get(4).getError());
+        for (int i : new int[]{0, 2, 5}) {
+            PaymentResponse payment = response.getResults().get(i).getResult();
+            assertEquals("CHK-" + i, payment.getAccountId());
+            assertEquals(BigDecimal.valueOf(1000 + i), payment.getPrincipal());
+            assertEquals(payment.getPaymentId(), repository.findByAccount("CHK-" + i).get(0).getPaymentId());
+        }
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void testScheduleBatch_RejectsEmptyAndOversizedBatches() {
+        List<PaymentScheduleRequest> oversized = Collections.nCopies(PaymentService.MAX_BATCH_SIZE + 1,
+                scheduleRequest("CHK-1", BigDecimal.valueOf(1000)));
+
+        assertEquals("Batch must contain at least one payment",
+                assertThrows(PaymentValidationException.class, () -> service.scheduleBatch(List.of())).getMessage());
+        assertEquals("Batch cannot contain more than 50000 payments",
+                assertThrows(PaymentValidationException.class, () -> service.scheduleBatch(oversized)).getMessage());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testSchedulePayment_ValidatesPrincipalAndDateOnly() {
+        PaymentScheduleRequest request = scheduleRequest("CHK-1", BigDecimal.valueOf(99));
+        assertEquals("Principal must be at least 100",
+                assertThrows(PaymentValidationException.class, () -> service.schedulePayment(request)).getMessage());
+
+        request.setPrincipal(BigDecimal.valueOf(100));
+        request.setScheduledDate(LocalDate.now());
+        assertEquals("Scheduled date must be at least 1 day in the future",
+                assertThrows(PaymentValidationException.class, () -> service.schedulePayment(request)).getMessage());
+
+        // Missing account and interest are left to the controller's bean validation, as before batches existed.
+        request.setScheduledDate(LocalDate.now().plusDays(1));
+        request.setInterest(null);
+        assertNull(service.schedulePayment(request).getInterest());
+    }
+
+    @Test
+    void testSchedulePayment_DuplicateIdempotencyKeysShareOnePayment() throws Exception {
+        PaymentScheduleRequest request = new PaymentScheduleRequest();
+        request.setAccountId("CHK-1");
+        request.setPrincipal(BigDecimal.valueOf(1000));
+        request.setInterest(BigDecimal.valueOf(0.05));
+        request.setScheduledDate(LocalDate.now().plusDays(1));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return service.schedulePayment(request, "retry-1");
+                }));
+            }
+            start.countDown();
+            for (Future<PaymentResponse> future : futures) {
+                assertSame(futures.get(0).get(), future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertSame(futures.get(0).get(), service.schedulePayment(request, "retry-1"));
+        assertEquals(1, repository.findByAccount("CHK-1").size());
+        assertNotEquals(futures.get(0).get().getPaymentId(), service.schedulePayment(request, "retry-2").getPaymentId());
+    }
+
+    @Test
+    void testSchedulePayment_IdempotencyKeyReusedForDifferentRequestIsRejected() {
+        PaymentScheduleRequest request = new PaymentScheduleRequest();
+        request.setAccountId("CHK-1");
+        request.setPrincipal(new BigDecimal("1000.00"));
+        request.setInterest(BigDecimal.valueOf(0.05));
+        request.setScheduledDate(LocalDate.now().plusDays(1));
+        PaymentResponse first = service.schedulePayment(request, "retry-1");
+
+        request.setPrincipal(new BigDecimal("1000.0"));
+        assertSame(first, service.schedulePayment(request, "retry-1"));
+        request.setPrincipal(new BigDecimal("2000.00"));
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.schedulePayment(request, "retry-1"));
+        assertEquals(1, repository.findByAccount("CHK-1").size());
+    }
+
+    @Test
+    void testExecutePayment_RecordsOutcomesAndStatusGauges() {
+        LocalDate scheduledDate = LocalDate.now().plusDays(1);
+        Payment payment = repository.createScheduled("CHK-1", BigDecimal.valueOf(1000), BigDecimal.valueOf(0.05), scheduledDate);
+        repository.createScheduled("CHK-1", BigDecimal.valueOf(500), BigDecimal.valueOf(0.05), scheduledDate);
+        PaymentExecutionRequest request = new PaymentExecutionRequest();
+        request.setExecutionDate(scheduledDate);
+
+        service.executePayment(payment.getPaymentId(), request);
+        assertThrows(PaymentValidationException.class, () -> service.executePayment(payment.getPaymentId(), request));
+        service.getPaymentHistory("CHK-1");
+
+        assertEquals(1, registry.get(PaymentMetrics.EXECUTION_COUNTER).tag("outcome", "EXECUTED").counter().count());
+        assertEquals(1, registry.get(PaymentMetrics.EXECUTION_COUNTER).tag("outcome", "REJECTED").counter().count());
+        assertEquals(2, registry.get(PaymentMetrics.OPERATION_TIMER).tag("operation", "execute").timer().count());
+        assertEquals(1, registry.get("payments.stored.by.status").tag("status", "SCHEDULED").gauge().value());
+        assertEquals(1, registry.get("payments.stored.by.status").tag("status", "EXECUTED").gauge().value());
+        assertEquals(2, registry.get("payments.stored").gauge().value());
+        assertEquals(2, registry.get(PaymentMetrics.HISTORY_SIZE).summary().totalAmount());
+    }
+
+    @Test
+    void testRecurringSchedule_MaterializesHorizonAndMergesVirtualOccurrences() {
+        RecurringScheduleRequest request = new RecurringScheduleRequest();
+        request.setAccountId("MTG-1");
+        request.setPrincipal(new BigDecimal("1500.00"));
+        request.setInterest(new BigDecimal("400.00"));
+        request.setFrequency(RecurringSchedule.Frequency.MONTHLY);
+        request.setInterval(1);
+        request.setStartDate(LocalDate.now().plusDays(1));
+        request.setEndDate(request.getStartDate().plusYears(30).minusDays(1));
+        String version = service.getPaymentHistoryVersion("MTG-1");
+
+        RecurringScheduleResponse schedule = recurring.createSchedule(request);
+
+        assertTrue(repository.count() <= 2);
+        assertEquals(repository.count(), schedule.getMaterializedOccurrences());
+        assertNotEquals(version, service.getPaymentHistoryVersion("MTG-1"));
+        List<PaymentResponse> history = service.getPaymentHistory("MTG-1");
+        assertEquals(360, history.size());
+        String lastId = history.get(359).getPaymentId();
+        assertEquals(UUID.fromString(lastId).toString(), lastId);
+        assertEquals(schedule.getScheduleId(), RecurringSchedule.scheduleIdOf(lastId));
+        assertEquals(request.getStartDate().plusMonths(359), history.get(359).getScheduledDate());
+        List<PaymentResponse> page = service.getPaymentHistoryPage("MTG-1", null, 12).getPayments();
+        assertEquals(history.subList(0, 12).stream().map(PaymentResponse::getPaymentId).toList(),
+                page.stream().map(PaymentResponse::getPaymentId).toList());
+        LocalDate from = request.getStartDate().plusYears(10);
+        try (Stream<PaymentResponse> due = service.streamDuePayments(from, from.plusYears(1).minusDays(1), PaymentStatus.SCHEDULED)) {
+            assertEquals(12, due.count());
+        }
+
+        PaymentExecutionRequest execute = new PaymentExecutionRequest();
+        execute.setExecutionDate(history.get(120).getScheduledDate());
+        PaymentResponse executed = service.executePayment(history.get(120).getPaymentId(), execute);
+
+        assertEquals(PaymentStatus.EXECUTED, executed.getStatus());
+        assertEquals(121, repository.count());
+        assertEquals(121, recurring.getSchedule(schedule.getScheduleId()).getMaterializedOccurrences());
+        history = service.getPaymentHistory("MTG-1");
+        assertEquals(360, history.size());
+        assertEquals(PaymentStatus.EXECUTED, history.get(120).getStatus());
+        assertEquals(PaymentStatus.SCHEDULED, history.get(121).getStatus());
+    }
+
+    @Test
+    void testStreamDuePayments_MergesStoredAndVirtualOccurrencesInKeyOrder() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        recurring.createSchedule(monthlySchedule("MTG-1", start, 2));
+        Payment oneOff = repository.createScheduled("CHK-1", BigDecimal.valueOf(300), BigDecimal.ONE, start.plusMonths(3));
+
+        List<PaymentResponse> due;
+        try (Stream<PaymentResponse> stream = service.streamDuePayments(start, start.plusMonths(6), null)) {
+            due = stream.toList();
+        }
+
+        List<LocalDate> occurrenceDates = due.stream().filter(payment -> payment.getAccountId().equals("MTG-1"))
+                .map(PaymentResponse::getScheduledDate).toList();
+        List<LocalDate> expected = new ArrayList<>();
+        for (int i = 0; i <= 6; i++) {
+            expected.add(start.plusMonths(i));
+        }
+        assertEquals(expected, occurrenceDates);
+        assertTrue(due.stream().anyMatch(payment -> payment.getPaymentId().equals(oneOff.getPaymentId())));
+        assertEquals(due.size(), due.stream().map(PaymentResponse::getPaymentId).distinct().count());
+        for (int i = 1; i < due.size(); i++) {
+            assertFalse(due.get(i).getScheduledDate().isBefore(due.get(i - 1).getScheduledDate()));
+        }
+        try (Stream<PaymentResponse> stream = service.streamDuePayments(start, start.plusMonths(6), PaymentStatus.EXECUTED)) {
+            assertEquals(0, stream.count());
+        }
+        try (Stream<PaymentResponse> stream = service.streamDuePayments(start.plusYears(2), start.plusYears(3), null)) {
+            assertEquals(0, stream.count());
+        }
+    }
+
+    @Test
+    void testGetAccountSummary_CountsVirtualOccurrencesLikeTheHistory() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        recurring.createSchedule(monthlySchedule("MTG-1", start, 2));
+        repository.createScheduled("MTG-1", BigDecimal.valueOf(300), BigDecimal.ONE, start.plusDays(3));
+        PaymentExecutionRequest execute = new PaymentExecutionRequest();
+        execute.setExecutionDate(start.plusMonths(5));
+        service.executePayment(service.getPaymentHistory("MTG-1").get(6).getPaymentId(), execute);
+
+        List<PaymentResponse> history = service.getPaymentHistory("MTG-1");
+        AccountSummaryResponse summary = service.getAccountSummary("MTG-1");
+
+        List<PaymentResponse> scheduled = history.stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.SCHEDULED).toList();
+        assertEquals(25, history.size());
+        assertEquals(history.size(), summary.getPaymentCount());
+        assertEquals(scheduled.size(), summary.getByStatus().get(PaymentStatus.SCHEDULED).count());
+        assertEquals(1, summary.getByStatus().get(PaymentStatus.EXECUTED).count());
+        assertEquals(scheduled.stream().map(PaymentResponse::getPrincipal).reduce(BigDecimal.ZERO, BigDecimal::add),
+                summary.getScheduledPrincipal());
+        assertEquals(scheduled.stream().map(PaymentResponse::getInterest).reduce(BigDecimal.ZERO, BigDecimal::add),
+                summary.getScheduledInterest());
+        assertEquals(start, summary.getNextDueDate());
+    }
+
+    @Test
+    void testGetPaymentHistoryVersion_ChangesOnlyWhenTheMergedHistoryCan() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        String empty = service.getPaymentHistoryVersion("MTG-1");
+        assertEquals(empty, service.getPaymentHistoryVersion("MTG-1"));
+
+        recurring.createSchedule(monthlySchedule("MTG-2", start, 2));
+        assertEquals(empty, service.getPaymentHistoryVersion("MTG-1"));
+
+        recurring.createSchedule(monthlySchedule("MTG-1", start.plusMonths(6), 2));
+        String scheduled = service.getPaymentHistoryVersion("MTG-1");
+        assertNotEquals(empty, scheduled);
+        assertEquals(0, recurring.materializeHorizon());
+        assertEquals(scheduled, service.getPaymentHistoryVersion("MTG-1"));
+
+        PaymentExecutionRequest execute = new PaymentExecutionRequest();
+        execute.setExecutionDate(start.plusMonths(6));
+        service.executePayment(service.getPaymentHistory("MTG-1").get(0).getPaymentId(), execute);
+        assertNotEquals(scheduled, service.getPaymentHistoryVersion("MTG-1"));
+    }
+
+    @Test
+    void testCreateSchedule_RejectsIntervalsLongerThanTheScheduleLimit() {
+        RecurringScheduleRequest request = monthlySchedule("MTG-1", LocalDate.now().plusDays(1), 2);
+        request.setFrequency(RecurringSchedule.Frequency.YEARLY);
+        request.setInterval(1_000_000_000);
+
+        assertEquals("Recurrence interval cannot be longer than 50 years",
+                assertThrows(PaymentValidationException.class, () -> recurring.createSchedule(request)).getMessage());
+        request.setInterval(51);
+        assertThrows(PaymentValidationException.class, () -> recurring.createSchedule(request));
+        request.setFrequency(RecurringSchedule.Frequency.WEEKLY);
+        request.setInterval(Integer.MAX_VALUE);
+        assertThrows(PaymentValidationException.class, () -> recurring.createSchedule(request));
+
+        request.setFrequency(RecurringSchedule.Frequency.YEARLY);
+        request.setInterval(50);
+        assertEquals(1, recurring.createSchedule(request).getMaterializedOccurrences());
+    }
+
+    @Test
+    void testScheduleBatch_ShardedKeepsRequestOrderAndExecutesOnTheAccountShard() {
+        PaymentRepository sharded = new PaymentRepository(Optional.empty(), new TimeOrderedPaymentIdGenerator(), 1 << 10, 4);
+        PaymentService shardedService = new PaymentService(sharded, new InterestCalculator(), new MortgageCalculator(),
+                new MortgageScenarioCalculator(new MortgageCalculator(), 1),
+                new MortgageEstimateCache(new MortgageCalculator(), new ObjectMapper(), 1 << 20, 60),
+                new PaymentMetrics(new SimpleMeterRegistry(), sharded),
+                new IdempotencyStore(1_000, 60),
+                new RecurringPaymentService(sharded, 31, 3_600_000));
+        try {
+            List<PaymentScheduleRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                requests.add(scheduleRequest("CHK-" + i % 10, BigDecimal.valueOf(100 + i)));
+            }
+            requests.get(7).setPrincipal(BigDecimal.ONE);
+
+            BatchScheduleResponse response = shardedService.scheduleBatch(requests);
+
+            assertEquals(39, response.getScheduledCount());
+            for (int i = 0; i < requests.size(); i++) {
+                PaymentResponse payment = response.getResults().get(i).getResult();
+                if (i == 7) {
+                    assertNull(payment);
+                    continue;
+                }
+                assertEquals(requests.get(i).getAccountId(), payment.getAccountId());
+                assertEquals(requests.get(i).getPrincipal(), payment.getPrincipal());
+            }
+            assertEquals(39, sharded.count());
+
+            PaymentExecutionRequest execute = new PaymentExecutionRequest();
+            execute.setExecutionDate(requests.get(3).getScheduledDate());
+            String paymentId = response.getResults().get(3).getResult().getPaymentId();
+            assertEquals(PaymentStatus.EXECUTED, shardedService.executePayment(paymentId, execute).getStatus());
+            assertEquals(1, sharded.countByStatus(PaymentStatus.EXECUTED));
+        } finally {
+            sharded.stop();
+        }
+    }
+
+    @Test
+    void testCalculateInterestBatch_MatchesSingleCalculations() {
+        List<InterestCalculationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            requests.add(interestRequest(BigDecimal.valueOf(100 + i, 2 - i % 3), i % 2 == 0 ? "0.05" : "0.0675", 1 + i % 400));
+        }
+        requests.add(interestRequest(BigDecimal.valueOf(500), "0.05", 4000));
+        requests.add(interestRequest(BigDecimal.valueOf(500), "0.001", 30));
+
+        BatchInterestResponse response = service.calculateInterestBatch(requests);
+
+        assertEquals(10_000, response.getCalculatedCount());
+        assertEquals(2, response.getRejectedCount());
+        for (int i = 0; i < 10_000; i++) {
+            InterestCalculationRequest request = requests.get(i);
+            assertEquals(service.calculateInterest(request).getAccruedInterest(),
+                    response.getResults().get(i).getResult().getAccruedInterest());
+        }
+        assertEquals("Days must be between 0 and 3650", response.getResults().get(10_000).getError());
+        assertEquals("Annual rate must be at least 0.01", response.getResults().get(10_001).getError());
+    }
+
+    private static RecurringScheduleRequest monthlySchedule(String accountId, LocalDate start, int years) {
+        RecurringScheduleRequest request = new RecurringScheduleRequest();
+        request.setAccountId(accountId);
+        request.setPrincipal(new BigDecimal("1500.00"));
+        request.setInterest(new BigDecimal("400.00"));
+        request.setFrequency(RecurringSchedule.Frequency.MONTHLY);
+        request.setInterval(1);
+        request.setStartDate(start);
+        request.setEndDate(start.plusYears(years).minusDays(1));
+        return request;
+    }
+
+    private static PaymentScheduleRequest scheduleRequest(String accountId, BigDecimal principal) {
+        PaymentScheduleRequest request = new PaymentScheduleRequest();
+        request.setAccountId(accountId);
+        request.setPrincipal(principal);
+        request.setInterest(BigDecimal.valueOf(0.05));
+        request.setScheduledDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+
+    private static InterestCalculationRequest interestRequest(BigDecimal principal, String annualRate, int days) {
+        InterestCalculationRequest request = new InterestCalculationRequest();
+        request.setPrincipal(principal);
+        request.setAnnualRate(new BigDecimal(annualRate));
+        request.setDays(days);
+        return request;
+    }
+}
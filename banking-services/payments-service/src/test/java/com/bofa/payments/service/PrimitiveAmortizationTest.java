@@ -0,0 +1,94 @@
+package com.bofa.payments.service;
+
+import com.bofa.payments.dto.AmortizationSchedule;
+import com.bofa.payments.dto.MortgageEstimateRequest;
+import com.bofa.payments.dto.MortgageSummaryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The primitive engine must reproduce the BigDecimal walk to the cent and serialize to the same JSON.
+ */
+public class PrimitiveAmortizationTest {
+
+    private final MortgageCalculator calculator = new MortgageCalculator();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testEstimate_MatchesBigDecimalWalkOnRandomLoans() throws Exception {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int i = 0; i < 1_500; i++) {
+            BigDecimal loan = BigDecimal.valueOf(1_000_000 + random.nextLong(500_000_000), random.nextInt(3));
+            BigDecimal propertyValue = loan.add(BigDecimal.valueOf(random.nextLong(100_000_000), 2));
+            BigDecimal rate = BigDecimal.valueOf(1 + random.nextLong(300_000), 4).stripTrailingZeros();
+            int term = 60 + random.nextInt(421);
+            BigDecimal prepayment = random.nextBoolean() ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(random.nextLong(500_000), random.nextInt(3));
+            assertMatches(request(loan, propertyValue, rate, term, prepayment));
+        }
+    }
+
+    @Test
+    void testEstimate_MatchesBigDecimalWalkOnBoundaries() throws Exception {
+        String[] loans = {"10000", "10000.01", "250000", "999999.99", "123456789.12"};
+        String[] rates = {"0.01", "0.125", "3", "6.875", "18", "99.9"};
+        int[] terms = {60, 61, 180, 359, 360, 480};
+        String[] prepayments = {"0", "0.01", "250", "1000000"};
+        for (String loan : loans) {
+            for (String rate : rates) {
+                for (int term : terms) {
+                    for (String prepayment : prepayments) {
+                        BigDecimal amount = new BigDecimal(loan);
+                        assertMatches(request(amount, amount.multiply(BigDecimal.valueOf(2)), new BigDecimal(rate),
+                                term, new BigDecimal(prepayment)));
+                        assertMatches(request(amount, amount, new BigDecimal(rate), term, new BigDecimal(prepayment)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSchedule_FallsBackWhenBalanceRunsAway() {
+        // At 8316.5% the rounded payment never covers the interest and the balance outgrows a long of cents.
+        MortgageEstimateRequest request = request(new BigDecimal("2238896.76"), new BigDecimal("3000000"),
+                new BigDecimal("8316.50"), 362, BigDecimal.ZERO);
+        assertNull(PrimitiveAmortization.schedule(calculator.prepare(request)));
+        assertEquals(362, calculator.estimate(request).getEstimatedMonthsToPayoff());
+    }
+
+    private void assertMatches(MortgageEstimateRequest request) throws Exception {
+        MortgageCalculator.Terms terms = calculator.prepare(request);
+        String label = request.getLoanAmount() + " @ " + request.getAnnualRate() + " for " + request.getTermMonths()
+                + " + " + request.getOptionalMonthlyPrepayment();
+
+        AmortizationSchedule schedule = PrimitiveAmortization.schedule(terms);
+        assertNotNull(schedule, label);
+        assertEquals(objectMapper.writeValueAsString(calculator.estimateWithBigDecimal(terms)),
+                objectMapper.writeValueAsString(calculator.estimate(request)), label);
+
+        MortgageSummaryResponse expected = calculator.summarizeWithBigDecimal(terms);
+        MortgageSummaryResponse actual = PrimitiveAmortization.summary(terms);
+        assertNotNull(actual, label);
+        assertEquals(expected.getEstimatedMonthsToPayoff(), actual.getEstimatedMonthsToPayoff(), label);
+        assertEquals(expected.getTotalInterest(), actual.getTotalInterest(), label);
+        assertEquals(expected.getTotalPenalty(), actual.getTotalPenalty(), label);
+    }
+
+    private static MortgageEstimateRequest request(BigDecimal loan, BigDecimal propertyValue, BigDecimal rate,
+                                                   int term, BigDecimal prepayment) {
+        MortgageEstimateRequest request = new MortgageEstimateRequest();
+        request.setLoanAmount(loan);
+        request.setPropertyValue(propertyValue);
+        request.setDownPayment(BigDecimal.ZERO);
+        request.setAnnualRate(rate);
+        request.setTermMonths(term);
+        request.setOptionalMonthlyPrepayment(prepayment);
+        return request;
+    }
+}